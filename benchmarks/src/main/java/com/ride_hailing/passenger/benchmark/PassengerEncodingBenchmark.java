@@ -0,0 +1,95 @@
+package com.ride_hailing.passenger.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.util.PassengerColumnar;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode cost of a passenger list in each negotiated response encoding. Payload sizes,
+ * raw and gzipped, are printed once per trial since they do not depend on the measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PassengerEncodingBenchmark {
+    private static final TypeReference<List<PassengerDTO>> PASSENGER_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"json", "cbor", "smile", "columnar"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private List<PassengerDTO> passengers;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> null;
+        };
+        passengers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            passengers.add(PassengerDTO.builder()
+                    .passengerId(i + 1)
+                    .name("PASSENGER " + i)
+                    .email("passenger" + i + "@example.com")
+                    .build());
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        write(outputStream);
+        encoded = outputStream.toByteArray();
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(encoded);
+        }
+        System.out.printf("%n%s rows=%d: %d bytes, %d bytes gzipped%n", format, rows, encoded.length, gzipped.size());
+    }
+
+    /**
+     * Writes to a counting sink, as the message converters write straight to the response stream.
+     */
+    @Benchmark
+    public long encode() throws IOException {
+        PassengerJsonBenchmark.CountingOutputStream outputStream = new PassengerJsonBenchmark.CountingOutputStream();
+        write(outputStream);
+        return outputStream.count;
+    }
+
+    private void write(OutputStream outputStream) throws IOException {
+        if (objectMapper == null) {
+            PassengerColumnar.write(passengers, outputStream);
+        } else {
+            objectMapper.writeValue(outputStream, passengers);
+        }
+    }
+
+    @Benchmark
+    public List<PassengerDTO> decode() throws IOException {
+        if (objectMapper == null) {
+            return PassengerColumnar.read(new ByteArrayInputStream(encoded));
+        }
+        return objectMapper.readValue(encoded, PASSENGER_LIST);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ride_hailing.passenger.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PassengerJsonBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<PassengerDTO> passengers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passengers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            passengers.add(PassengerDTO.builder()
+                    .passengerId(i + 1)
+                    .name("PASSENGER " + i)
+                    .email("passenger" + i + "@example.com")
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public long writeJsonArray() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        objectMapper.writeValue(outputStream, passengers);
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public long writeNdjson() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+            for (PassengerDTO passenger : passengers) {
+                writer.write(passenger);
+            }
+        }
+        return outputStream.count;
+    }
+
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ride_hailing.passenger.benchmark;
+
+import com.ride_hailing.passenger.config.VirtualThreadPinningMonitor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Closed-loop HTTP load test that boots the service once per mode (servlet stack on platform request threads,
+ * servlet stack on virtual threads, WebFlux over R2DBC), drives it with {@code concurrency} clients and prints
+ * latency and throughput side by side. Arguments are key=value pairs: modes, rows, concurrency, seconds, warmup,
+ * ids, cacheSize and profiles (extra Spring profiles, e.g. {@code profiles=bench} for the pooled file-database setup).
+ * Admission control is off in every mode: it exists only on the servlet stack and would throttle the single client.
+ */
+public final class PassengerLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "platform,virtual,reactive").split(","));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int idsPerRequest = Integer.parseInt(options.getOrDefault("ids", "20"));
+        String cacheSize = options.getOrDefault("cacheSize", "0");
+        String profiles = options.getOrDefault("profiles", "");
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            boolean virtual = mode.equals("virtual");
+            boolean reactive = mode.equals("reactive");
+            List<String> properties = new ArrayList<>(List.of("server.port=0", "passenger.cache.maximum-size=" + cacheSize,
+                    "passenger.admission.enabled=false"));
+            List<String> activeProfiles = new ArrayList<>();
+            if (!profiles.isBlank()) {
+                activeProfiles.add(profiles);
+            }
+            if (virtual) {
+                activeProfiles.add("virtual-threads");
+            }
+            if (reactive) {
+                activeProfiles.add("reactive");
+            }
+            if (!activeProfiles.isEmpty()) {
+                properties.add("spring.profiles.active=" + String.join(",", activeProfiles));
+            }
+            try (SeededPassengerContext context = SeededPassengerContext.start(
+                    reactive ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET, rows,
+                    properties.toArray(String[]::new))) {
+                int port = ((WebServerApplicationContext) context.getApplicationContext()).getWebServer().getPort();
+                String baseUrl = "http://localhost:" + port + "/api/passenger";
+
+                // One client for warmup and measurement, so connections are already open when measuring
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                run(context, client, baseUrl, concurrency, warmupSeconds, idsPerRequest);
+                Result result = run(context, client, baseUrl, concurrency, seconds, idsPerRequest).withMode(mode);
+                context.getApplicationContext().getBeanProvider(VirtualThreadPinningMonitor.class)
+                        .ifAvailable(monitor -> result.pinned = monitor.getPinnedCount());
+                results.add(result);
+            }
+        }
+
+        System.out.printf("%n%-10s %12s %12s %10s %10s %10s %10s %8s%n",
+                "mode", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "pinned");
+        for (Result result : results) {
+            System.out.printf("%-10s %12d %12.0f %10.2f %10.2f %10.2f %10d %8s%n",
+                    result.mode, result.requests, result.throughput, result.p50, result.p99, result.max,
+                    result.errors, result.pinned < 0 ? "-" : String.valueOf(result.pinned));
+        }
+    }
+
+    private static Result run(SeededPassengerContext context, HttpClient client, String baseUrl, int concurrency,
+                              int seconds, int idsPerRequest) throws Exception {
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        long started = System.nanoTime();
+
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                boolean multiGet = i % 5 == 0;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        String uri = multiGet
+                                ? baseUrl + context.randomPassengerIds(idsPerRequest).stream()
+                                        .map(String::valueOf)
+                                        .collect(Collectors.joining("&id=", "?id=", ""))
+                                : baseUrl + "/" + context.randomPassengerId();
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(uri)).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - begin;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        long[] all = workers.stream().map(PassengerLoadTest::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        Result result = new Result();
+        result.requests = all.length;
+        result.throughput = all.length / elapsedSeconds;
+        result.p50 = percentile(all, 0.50);
+        result.p99 = percentile(all, 0.99);
+        result.max = all.length == 0 ? 0 : all[all.length - 1] / 1e6;
+        result.errors = errors.get();
+        return result;
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    private static final class Result {
+        String mode;
+        long requests;
+        double throughput;
+        double p50;
+        double p99;
+        double max;
+        long errors;
+        long pinned = -1;
+
+        Result withMode(String mode) {
+            this.mode = mode;
+            return this;
+        }
+    }
+}
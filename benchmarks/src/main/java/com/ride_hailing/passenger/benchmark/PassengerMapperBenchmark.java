@@ -0,0 +1,36 @@
+package com.ride_hailing.passenger.benchmark;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mapper.PassengerMapper;
+import com.ride_hailing.passenger.model.Passenger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PassengerMapperBenchmark {
+    private final PassengerMapper passengerMapper = new PassengerMapper();
+    private Passenger passenger;
+    private PassengerDTO passengerDTO;
+
+    @Setup
+    public void setUp() {
+        passenger = Passenger.builder().passengerId(42).name("JOHN DOE").email("JOHN.DOE@EXAMPLE.COM").build();
+        passengerDTO = PassengerDTO.builder().passengerId(42).name("JOHN DOE").email("JOHN.DOE@EXAMPLE.COM").build();
+    }
+
+    @Benchmark
+    public PassengerDTO mapToDTO() {
+        return passengerMapper.mapToDTO(passenger);
+    }
+
+    @Benchmark
+    public Passenger mapToEntity() {
+        return passengerMapper.mapToEntity(passengerDTO);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ride_hailing.passenger.benchmark;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mapper.PassengerMapper;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.repository.PassengerRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity hydration plus mapper against direct DTO projection for the same reads.
+ * Run with -prof gc to compare gc.alloc.rate.norm (bytes per operation).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PassengerReadPathBenchmark {
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"100"})
+    public int idsPerLookup;
+
+    private SeededPassengerContext context;
+    private PassengerRepository passengerRepository;
+    private PassengerJdbcRepository passengerJdbcRepository;
+    private PassengerMapper passengerMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededPassengerContext.start(WebApplicationType.NONE, rows);
+        passengerRepository = context.getBean(PassengerRepository.class);
+        passengerJdbcRepository = context.getBean(PassengerJdbcRepository.class);
+        passengerMapper = context.getBean(PassengerMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<PassengerDTO> byIdEntity() {
+        return passengerRepository.findByPassengerId(context.randomPassengerId())
+                .map(passengerMapper::mapToDTO);
+    }
+
+    @Benchmark
+    public Optional<PassengerDTO> byIdProjection() {
+        return passengerJdbcRepository.findDTOById(context.randomPassengerId());
+    }
+
+    @Benchmark
+    public List<PassengerDTO> byIdsEntity() {
+        return passengerRepository.findAllById(context.randomPassengerIds(idsPerLookup))
+                .stream()
+                .map(passengerMapper::mapToDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public List<PassengerDTO> byIdsProjection() {
+        return passengerJdbcRepository.findAllDTOsById(context.randomPassengerIds(idsPerLookup));
+    }
+}
@@ -0,0 +1,76 @@
+package com.ride_hailing.passenger.benchmark;
+
+import com.ride_hailing.passenger.config.RestLoggingFilter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full servlet request path through MockMvc, including RestLoggingFilter with its default body sampling.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PassengerRequestBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private SeededPassengerContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededPassengerContext.start(WebApplicationType.SERVLET, rows,
+                "logging.level.com.ride_hailing.passenger.config.RestLoggingFilter=INFO");
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup((WebApplicationContext) context.getApplicationContext())
+                .addFilters(context.getBean(RestLoggingFilter.class))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getPassengerById() throws Exception {
+        return mockMvc.perform(get("/api/passenger/{id}", context.randomPassengerId())).andReturn();
+    }
+
+    /**
+     * Probes ids that do not exist, as dispatch does. Misses are negatively cached, so this mostly
+     * measures the 404 path itself: exception, handler and logging.
+     */
+    @Benchmark
+    public MvcResult getMissingPassengerById() throws Exception {
+        return mockMvc.perform(get("/api/passenger/{id}", -context.randomPassengerId() - 1)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getPassengerByIds() throws Exception {
+        String ids = context.randomPassengerIds(20).stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining("&id=", "?id=", ""));
+        return mockMvc.perform(get("/api/passenger" + ids)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getPassengerPage() throws Exception {
+        return mockMvc.perform(get("/api/passenger/page")
+                        .param("after", String.valueOf(context.randomPassengerId()))
+                        .param("limit", "100"))
+                .andReturn();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ride_hailing.passenger.benchmark;
+
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerPageDTO;
+import com.ride_hailing.passenger.service.PassengerService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PassengerServiceBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private SeededPassengerContext context;
+    private PassengerService passengerService;
+    private PassengerCache passengerCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededPassengerContext.start(WebApplicationType.NONE, rows);
+        passengerService = context.getBean(PassengerService.class);
+        passengerCache = context.getBean(PassengerCache.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<PassengerDTO> getPassengerById() {
+        return passengerService.getPassengerById(context.randomPassengerId());
+    }
+
+    @Benchmark
+    public Optional<PassengerDTO> getPassengerByIdUncached() {
+        int passengerId = context.randomPassengerId();
+        passengerCache.invalidate(passengerId);
+        return passengerService.getPassengerById(passengerId);
+    }
+
+    @Benchmark
+    public List<PassengerDTO> getPassengerByIds() {
+        return passengerService.getPassengerByIds(context.randomPassengerIds(100));
+    }
+
+    @Benchmark
+    public PassengerPageDTO getPassengerPage() {
+        return passengerService.getPassengerPage(context.randomPassengerId(), 100);
+    }
+
+    @Benchmark
+    public void streamAllPassengers(Blackhole blackhole) {
+        passengerService.streamAllPassengers(blackhole::consume);
+    }
+}
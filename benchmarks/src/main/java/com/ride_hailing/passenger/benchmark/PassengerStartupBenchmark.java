@@ -0,0 +1,166 @@
+package com.ride_hailing.passenger.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cold-start comparison of the service's build modes. Each mode is launched {@code runs} times as a
+ * separate process and timed until /actuator/health answers 200, alongside the startup time Spring
+ * reports itself. Modes whose artifact has not been built are skipped:
+ * <ul>
+ *     <li>jvm - the executable jar ({@code ./mvnw package})</li>
+ *     <li>aot - the extracted jar with Spring AOT enabled ({@code ./mvnw -Pcds package})</li>
+ *     <li>cds - aot plus the class data sharing archive ({@code ./mvnw -Pcds package})</li>
+ *     <li>native - the GraalVM executable ({@code ./mvnw -Pnative package})</li>
+ * </ul>
+ * Arguments are key=value pairs: modes, runs, project (the service directory, {@code ..} by default)
+ * and timeout (seconds to wait for each start).
+ */
+public final class PassengerStartupBenchmark {
+    private static final String JAR = "passenger-0.0.1-SNAPSHOT-exec.jar";
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "jvm,aot,cds,native").split(","));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Path project = Path.of(options.getOrDefault("project", "..")).toAbsolutePath().normalize();
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120")));
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            List<String> command = command(mode, project);
+            if (command == null) {
+                System.out.printf("Skipping %s: artifact not built%n", mode);
+                continue;
+            }
+            Result result = new Result(mode);
+            for (int run = 0; run < runs; run++) {
+                start(command, project, timeout, result);
+            }
+            results.add(result);
+        }
+
+        System.out.printf("%n%-8s %6s %14s %14s %14s %14s%n",
+                "mode", "runs", "ready min ms", "ready p50 ms", "spring min ms", "spring p50 ms");
+        for (Result result : results) {
+            System.out.printf("%-8s %6d %14.0f %14.0f %14.0f %14.0f%n", result.mode, result.ready.size(),
+                    min(result.ready), median(result.ready), min(result.reported), median(result.reported));
+        }
+    }
+
+    private static List<String> command(String mode, Path project) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path jar = project.resolve("target").resolve(JAR);
+        Path cdsDirectory = project.resolve("target").resolve("cds");
+        Path extractedJar = cdsDirectory.resolve(JAR);
+        Path archive = cdsDirectory.resolve("passenger.jsa");
+        Path executable = project.resolve("target").resolve("passenger");
+        return switch (mode) {
+            case "jvm" -> Files.exists(jar) ? List.of(java, "-jar", jar.toString()) : null;
+            case "aot" -> Files.exists(extractedJar)
+                    ? List.of(java, "-Dspring.aot.enabled=true", "-jar", extractedJar.toString())
+                    : null;
+            case "cds" -> Files.exists(archive)
+                    ? List.of(java, "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true", "-jar", extractedJar.toString())
+                    : null;
+            case "native" -> Files.isExecutable(executable) ? List.of(executable.toString()) : null;
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        };
+    }
+
+    private static void start(List<String> command, Path project, Duration timeout, Result result) throws Exception {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        Path log = Files.createTempFile("passenger-startup-", ".log");
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+
+        long begin = System.nanoTime();
+        Process process = new ProcessBuilder(arguments)
+                .directory(project.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = begin + timeout.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Process exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Not ready within " + timeout + ", see " + log);
+                }
+                try {
+                    if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            result.ready.add((System.nanoTime() - begin) / 1e6);
+
+            Matcher matcher = STARTED.matcher(Files.readString(log));
+            if (matcher.find()) {
+                result.reported.add(Double.parseDouble(matcher.group(2)) * 1000);
+            }
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+        Files.deleteIfExists(log);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double min(List<Double> values) {
+        return values.stream().mapToDouble(Double::doubleValue).min().orElse(0);
+    }
+
+    private static double median(List<Double> values) {
+        double[] sorted = values.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        return sorted.length == 0 ? 0 : sorted[(sorted.length - 1) / 2];
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    private static final class Result {
+        final String mode;
+        final List<Double> ready = new ArrayList<>();
+        final List<Double> reported = new ArrayList<>();
+
+        Result(String mode) {
+            this.mode = mode;
+        }
+    }
+}
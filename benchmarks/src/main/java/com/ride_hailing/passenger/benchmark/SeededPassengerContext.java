@@ -0,0 +1,99 @@
+package com.ride_hailing.passenger.benchmark;
+
+import com.ride_hailing.passenger.PassengerApplication;
+import com.ride_hailing.passenger.model.Passenger;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the passenger application against its configured database (in-memory H2 unless a profile
+ * such as {@code bench} changes it) and seeds it with {@code rows} passengers through the JDBC batch insert path.
+ */
+public final class SeededPassengerContext implements AutoCloseable {
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private final ConfigurableApplicationContext applicationContext;
+    private final int[] passengerIds;
+
+    private SeededPassengerContext(ConfigurableApplicationContext applicationContext, int[] passengerIds) {
+        this.applicationContext = applicationContext;
+        this.passengerIds = passengerIds;
+    }
+
+    /**
+     * Properties are passed as command line arguments so they take precedence over application.properties.
+     */
+    public static SeededPassengerContext start(WebApplicationType webApplicationType, int rows, String... properties) {
+        Map<String, String> arguments = new LinkedHashMap<>();
+        arguments.put("spring.jpa.show-sql", "false");
+        arguments.put("server.port", "-1");
+        arguments.put("logging.level.root", "WARN");
+        arguments.put("logging.threshold.console", "OFF");
+        arguments.put("logging.file.name", "target/benchmark.log");
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            arguments.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+
+        ConfigurableApplicationContext applicationContext = new SpringApplicationBuilder(PassengerApplication.class)
+                .web(webApplicationType)
+                .logStartupInfo(false)
+                .run(arguments.entrySet().stream()
+                        .map(argument -> "--" + argument.getKey() + "=" + argument.getValue())
+                        .toArray(String[]::new));
+        return new SeededPassengerContext(applicationContext, seed(applicationContext, rows));
+    }
+
+    private static int[] seed(ConfigurableApplicationContext applicationContext, int rows) {
+        PassengerJdbcRepository passengerJdbcRepository = applicationContext.getBean(PassengerJdbcRepository.class);
+        int[] passengerIds = new int[rows];
+        List<Passenger> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        int seeded = 0;
+        for (int i = 0; i < rows; i++) {
+            batch.add(Passenger.builder()
+                    .name("PASSENGER " + i)
+                    .email("passenger" + i + "@example.com")
+                    .build());
+            if (batch.size() == SEED_BATCH_SIZE || i == rows - 1) {
+                for (Passenger passenger : passengerJdbcRepository.insertAll(batch)) {
+                    passengerIds[seeded++] = passenger.getPassengerId();
+                }
+                batch.clear();
+            }
+        }
+        return passengerIds;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return applicationContext.getBean(type);
+    }
+
+    public ConfigurableApplicationContext getApplicationContext() {
+        return applicationContext;
+    }
+
+    public int randomPassengerId() {
+        return passengerIds[ThreadLocalRandom.current().nextInt(passengerIds.length)];
+    }
+
+    public List<Integer> randomPassengerIds(int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(randomPassengerId());
+        }
+        return ids;
+    }
+
+    @Override
+    public void close() {
+        applicationContext.close();
+    }
+}
@@ -1,9 +1,12 @@
 package com.ride_hailing.passenger;
 
+import com.ride_hailing.passenger.config.PassengerRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(PassengerRuntimeHints.class)
 public class PassengerApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(PassengerApplication.class, args);
@@ -0,0 +1,110 @@
+package com.ride_hailing.passenger.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Shared tier held in this JVM, for tests and single-node runs. Messages are delivered to the
+ * subscribers synchronously on the publishing thread. Several {@link PassengerSharedCache}
+ * instances given the same client behave like nodes sharing one Redis.
+ */
+@Component
+@ConditionalOnProperty(name = "passenger.cache.shared.client", havingValue = "memory")
+public class InMemorySharedCacheClient implements SharedCacheClient {
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    // Each sorted set is replaced by an immutable copy on update, so readers never see one half-written
+    private final ConcurrentHashMap<String, Map<String, Double>> sortedSets = new ConcurrentHashMap<>();
+
+    @Override
+    public VersionedValue get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public Map<String, VersionedValue> getAll(Collection<String> keys) {
+        Map<String, VersionedValue> found = new HashMap<>();
+        for (String key : keys) {
+            VersionedValue value = get(key);
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean setIfNewer(String key, VersionedValue value, Duration ttl) {
+        long now = System.nanoTime();
+        Entry candidate = new Entry(value, now + ttl.toNanos());
+        Entry stored = entries.compute(key, (k, existing) ->
+                existing == null || existing.isExpired(now) || accepts(existing.value(), value) ? candidate : existing);
+        return stored == candidate;
+    }
+
+    private static boolean accepts(VersionedValue existing, VersionedValue value) {
+        return value.version() > existing.version()
+                || value.version() == existing.version() && existing.value() == null && value.value() != null;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        subscribers.getOrDefault(channel, List.of()).forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        subscribers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void incrementScores(String key, Map<String, Double> increments, int maxMembers) {
+        sortedSets.compute(key, (k, scores) -> {
+            Map<String, Double> updated = scores == null ? new HashMap<>() : new HashMap<>(scores);
+            increments.forEach((member, increment) -> updated.merge(member, increment, Double::sum));
+            if (updated.size() > maxMembers) {
+                Map<String, Double> kept = new HashMap<>();
+                highest(updated, maxMembers).forEach(member -> kept.put(member, updated.get(member)));
+                return Map.copyOf(kept);
+            }
+            return Map.copyOf(updated);
+        });
+    }
+
+    @Override
+    public List<String> topMembers(String key, int count) {
+        return highest(sortedSets.getOrDefault(key, Map.of()), count);
+    }
+
+    private static List<String> highest(Map<String, Double> scores, int count) {
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(count)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private record Entry(VersionedValue value, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
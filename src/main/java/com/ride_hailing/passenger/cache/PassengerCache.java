@@ -0,0 +1,185 @@
+package com.ride_hailing.passenger.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ride_hailing.passenger.dto.PassengerCacheStatsDTO;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Bounded, read-through cache of passenger lookups by id. Missing ids are cached as
+ * {@link Optional#empty()} with a shorter TTL so repeated probes do not reach the database.
+ */
+@Component
+public class PassengerCache implements MeterBinder {
+    private static final String CACHE_NAME = "passenger";
+
+    private final Cache<Integer, Optional<PassengerDTO>> cache;
+    // Bumped by every invalidation; a load that overlapped one is not kept, as it may predate the change
+    private final AtomicLong invalidations = new AtomicLong();
+    private final List<InvalidationListener> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public PassengerCache(@Value("${passenger.cache.maximum-size:100000}") long maximumSize,
+                          @Value("${passenger.cache.ttl-seconds:600}") long ttlSeconds,
+                          @Value("${passenger.cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PassengerExpiry(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(negativeTtlSeconds)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Concurrent misses for one id share a single load through the cache's per-key compute. A load
+     * that overlapped an invalidation is handed to its callers but not cached, as it may predate the change.
+     */
+    public Optional<PassengerDTO> get(Integer passengerId, Function<Integer, Optional<PassengerDTO>> loader) {
+        AtomicReference<Optional<PassengerDTO>> uncached = new AtomicReference<>();
+        Optional<PassengerDTO> cached = cache.get(passengerId, id -> {
+            long invalidationsBefore = invalidations.get();
+            Optional<PassengerDTO> loaded = loader.apply(id);
+            if (invalidations.get() != invalidationsBefore) {
+                uncached.set(loaded);
+                return null;
+            }
+            return loaded;
+        });
+        return cached != null ? cached : uncached.get();
+    }
+
+    /**
+     * Caches a passenger read outside of {@link #get}, such as by the startup warm-up; an entry already present is kept.
+     */
+    public void put(PassengerDTO passengerDTO) {
+        cache.asMap().putIfAbsent(passengerDTO.passengerId(), Optional.of(passengerDTO));
+    }
+
+    /**
+     * Registers a listener told about every invalidation, after the entry is dropped.
+     */
+    public void addInvalidationListener(InvalidationListener listener) {
+        invalidationListeners.add(listener);
+    }
+
+    public void invalidate(Integer passengerId) {
+        if (passengerId != null) {
+            invalidations.incrementAndGet();
+            cache.invalidate(passengerId);
+            invalidationListeners.forEach(listener -> listener.invalidated(passengerId));
+        }
+    }
+
+    /**
+     * For a loader that finds out mid-load that what it read is already stale: the value being loaded
+     * is not cached. Unlike {@link #invalidate}, this does not wait for the load, so it is safe inside one.
+     */
+    public void discardLoad(Integer passengerId) {
+        invalidations.incrementAndGet();
+        invalidationListeners.forEach(listener -> listener.invalidated(passengerId));
+    }
+
+    /**
+     * Drops the entry unless it already holds {@code version} or a later one, so a change announced
+     * by another node does not evict a value this node has loaded since. Cached misses are always dropped.
+     */
+    public void invalidateOlderThan(Integer passengerId, long version) {
+        invalidations.incrementAndGet();
+        cache.asMap().computeIfPresent(passengerId, (id, cached) -> cached
+                .filter(passengerDTO -> passengerDTO.version() != null && passengerDTO.version() >= version)
+                .isPresent() ? cached : null);
+        invalidationListeners.forEach(listener -> listener.invalidated(passengerId));
+    }
+
+    /**
+     * Ids of up to {@code limit} cached passengers, most frequently used first.
+     */
+    public List<Integer> hottest(int limit) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit).entrySet().stream()
+                        .filter(entry -> entry.getValue().isPresent())
+                        .map(Map.Entry::getKey)
+                        .toList())
+                .orElse(List.of());
+    }
+
+    /**
+     * Inside a transaction the entry is dropped once it completes, so a concurrent read cannot
+     * re-cache the pre-commit row after the invalidation; outside one it is dropped immediately.
+     */
+    public void invalidateAfterCommit(Integer passengerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(passengerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(passengerId);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+        invalidationListeners.forEach(InvalidationListener::invalidatedAll);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public PassengerCacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return PassengerCacheStatsDTO.builder()
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .estimatedSize(cache.estimatedSize())
+                .build();
+    }
+
+    public interface InvalidationListener {
+        void invalidated(Integer passengerId);
+
+        void invalidatedAll();
+    }
+
+    private record PassengerExpiry(Duration ttl, Duration negativeTtl) implements Expiry<Integer, Optional<PassengerDTO>> {
+        @Override
+        public long expireAfterCreate(Integer passengerId, Optional<PassengerDTO> passengerDTO, long currentTime) {
+            return passengerDTO.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Integer passengerId, Optional<PassengerDTO> passengerDTO,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(passengerId, passengerDTO, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Integer passengerId, Optional<PassengerDTO> passengerDTO,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
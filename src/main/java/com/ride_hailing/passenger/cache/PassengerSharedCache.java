@@ -0,0 +1,327 @@
+package com.ride_hailing.passenger.cache;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.ride_hailing.passenger.cache.SharedCacheClient.VersionedValue;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Second cache level behind {@link PassengerCache}, shared by all nodes through a {@link SharedCacheClient}
+ * selected with {@code passenger.cache.shared.client}; without one every call goes straight to the loader.
+ * Entries carry the passenger version and a write never replaces a newer one, so a node that read an
+ * old row, from a lagging replica or before a concurrent update, cannot put it back. After a write
+ * commits, the new version is recorded for the key and announced on the invalidation channel, and
+ * every node drops near-cache entries older than it. The shared tier is an optimisation only: when
+ * the client fails, reads fall back to the database and the failure is counted.
+ */
+@Log4j2
+@Component
+public class PassengerSharedCache implements MeterBinder {
+    private static final String KEY_PREFIX = "passenger:";
+    private static final String HOT_IDS_KEY = "passenger:hot-ids";
+    // Version of a cached miss: lower than any stored row, so a recorded change always wins over it
+    private static final long MISSING_VERSION = -1L;
+    private static final byte[] MISSING = new byte[0];
+
+    private final SharedCacheClient client;
+    private final PassengerCache passengerCache;
+    private final String channel;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final int hotIdsMaxSize;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleWrites = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public PassengerSharedCache(ObjectProvider<SharedCacheClient> sharedCacheClient,
+                                PassengerCache passengerCache,
+                                @Value("${passenger.cache.shared.channel:passenger-cache-invalidation}") String channel,
+                                @Value("${passenger.cache.shared.ttl-seconds:3600}") long ttlSeconds,
+                                @Value("${passenger.cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+                                @Value("${passenger.cache.shared.hot-ids.max-size:10000}") int hotIdsMaxSize) {
+        this.client = sharedCacheClient.getIfAvailable();
+        this.passengerCache = passengerCache;
+        this.channel = channel;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+        this.hotIdsMaxSize = hotIdsMaxSize;
+        // Own mapper: the stored form is internal, and PassengerDTO hides its version and updatedAt from API clients
+        JsonMapper mapper = JsonMapper.builder().findAndAddModules().build();
+        this.writer = mapper.writerFor(CachedPassenger.class);
+        this.reader = mapper.readerFor(CachedPassenger.class);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (client != null) {
+            client.subscribe(channel, this::onInvalidation);
+        }
+    }
+
+    public boolean isEnabled() {
+        return client != null;
+    }
+
+    public Optional<PassengerDTO> get(Integer passengerId, Function<Integer, Optional<PassengerDTO>> loader) {
+        if (client == null) {
+            return loader.apply(passengerId);
+        }
+        try {
+            VersionedValue cached = client.get(key(passengerId));
+            if (cached != null && cached.value() != null) {
+                hits.increment();
+                return decode(cached);
+            }
+        } catch (RuntimeException e) {
+            failed("read", e);
+            return loader.apply(passengerId);
+        }
+        misses.increment();
+        Optional<PassengerDTO> loaded = loader.apply(passengerId);
+        if (!store(passengerId, loaded) && loaded.isPresent()) {
+            // A newer version was committed while this one was read: answer with it, but keep it out of the near-cache
+            passengerCache.discardLoad(passengerId);
+        }
+        return loaded;
+    }
+
+    /**
+     * The passengers the shared tier holds for the ids; ids it has no row for, or only a cached miss, are left out.
+     */
+    public Map<Integer, PassengerDTO> getAll(Collection<Integer> passengerIds) {
+        Map<Integer, PassengerDTO> found = new HashMap<>();
+        if (client == null || passengerIds.isEmpty()) {
+            return found;
+        }
+        try {
+            client.getAll(passengerIds.stream().map(PassengerSharedCache::key).toList())
+                    .values()
+                    .forEach(cached -> {
+                        if (cached.value() != null) {
+                            decode(cached).ifPresent(passengerDTO -> found.put(passengerDTO.passengerId(), passengerDTO));
+                        }
+                    });
+        } catch (RuntimeException e) {
+            failed("read", e);
+        }
+        return found;
+    }
+
+    public void storeAll(Collection<PassengerDTO> passengers) {
+        passengers.forEach(passengerDTO -> store(passengerDTO.passengerId(), Optional.of(passengerDTO)));
+    }
+
+    // False only when the tier holds a newer version; a failed write is not a reason to distrust the value
+    private boolean store(Integer passengerId, Optional<PassengerDTO> passengerDTO) {
+        if (client == null) {
+            return true;
+        }
+        try {
+            VersionedValue value = passengerDTO
+                    .map(dto -> new VersionedValue(versionOf(dto.version()), encode(dto)))
+                    .orElse(new VersionedValue(MISSING_VERSION, MISSING));
+            if (!client.setIfNewer(key(passengerId), value, passengerDTO.isPresent() ? ttl : negativeTtl)) {
+                staleWrites.increment();
+                return false;
+            }
+        } catch (RuntimeException e) {
+            failed("write", e);
+        }
+        return true;
+    }
+
+    /**
+     * Records that the passenger changed to {@code version} and tells every node, once the current
+     * transaction commits; a rolled back write changed nothing. Outside a transaction it happens immediately.
+     */
+    public void publishAfterCommit(Integer passengerId, Long version) {
+        publishAfterCommit(passengerId, new VersionedValue(versionOf(version), null));
+    }
+
+    /**
+     * As {@link #publishAfterCommit}, recording the deleted passenger as missing at its final version.
+     */
+    public void publishDeletedAfterCommit(Integer passengerId, Long version) {
+        publishAfterCommit(passengerId, new VersionedValue(versionOf(version), MISSING));
+    }
+
+    private void publishAfterCommit(Integer passengerId, VersionedValue change) {
+        if (client == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(passengerId, change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(passengerId, change);
+            }
+        });
+    }
+
+    private void publish(Integer passengerId, VersionedValue change) {
+        long version = change.version();
+        try {
+            client.setIfNewer(key(passengerId), change, ttl);
+            client.publish(channel, passengerId + ":" + version);
+        } catch (RuntimeException e) {
+            failed("invalidation", e);
+        }
+    }
+
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(':');
+        try {
+            passengerCache.invalidateOlderThan(Integer.valueOf(message.substring(0, separator)),
+                    Long.parseLong(message.substring(separator + 1)));
+            invalidationsReceived.increment();
+        } catch (RuntimeException e) {
+            failed("invalidation message '" + message + "'", e);
+        }
+    }
+
+    /**
+     * Adds this node's hottest ids to the shared hot set, weighted by rank, so that nodes starting later can warm up with them.
+     */
+    public void recordHotIds(List<Integer> passengerIds) {
+        if (client == null || passengerIds.isEmpty()) {
+            return;
+        }
+        Map<String, Double> scores = new HashMap<>();
+        for (int rank = 0; rank < passengerIds.size(); rank++) {
+            scores.put(passengerIds.get(rank).toString(), (double) (passengerIds.size() - rank) / passengerIds.size());
+        }
+        try {
+            client.incrementScores(HOT_IDS_KEY, scores, hotIdsMaxSize);
+        } catch (RuntimeException e) {
+            failed("write", e);
+        }
+    }
+
+    public List<Integer> hottestIds(int limit) {
+        if (client == null) {
+            return List.of();
+        }
+        try {
+            return client.topMembers(HOT_IDS_KEY, limit).stream()
+                    .map(Integer::valueOf)
+                    .toList();
+        } catch (RuntimeException e) {
+            failed("read", e);
+            return List.of();
+        }
+    }
+
+    // Rows written before versioning, and entities that were never flushed, count as the initial version
+    private static long versionOf(Long version) {
+        return version == null ? 0L : version;
+    }
+
+    private static String key(Integer passengerId) {
+        return KEY_PREFIX + passengerId;
+    }
+
+    private byte[] encode(PassengerDTO passengerDTO) {
+        try {
+            return writer.writeValueAsBytes(new CachedPassenger(passengerDTO.passengerId(), passengerDTO.name(),
+                    passengerDTO.email(), passengerDTO.updatedAt()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<PassengerDTO> decode(VersionedValue cached) {
+        if (cached.value().length == 0) {
+            return Optional.empty();
+        }
+        try {
+            CachedPassenger passenger = reader.readValue(cached.value());
+            return Optional.of(PassengerDTO.builder()
+                    .passengerId(passenger.passengerId())
+                    .name(passenger.name())
+                    .email(passenger.email())
+                    .version(cached.version())
+                    .updatedAt(passenger.updatedAt())
+                    .build());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void failed(String operation, RuntimeException e) {
+        errors.increment();
+        log.warn("Shared passenger cache {} failed: {}", operation, e.toString());
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getStaleWriteCount() {
+        return staleWrites.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidationsReceived.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("passenger.cache.shared.hits", this, PassengerSharedCache::getHitCount)
+                .description("Near-cache misses answered by the shared cache tier")
+                .register(meterRegistry);
+        FunctionCounter.builder("passenger.cache.shared.misses", this, PassengerSharedCache::getMissCount)
+                .description("Near-cache misses the shared cache tier could not answer")
+                .register(meterRegistry);
+        FunctionCounter.builder("passenger.cache.shared.stale.writes", this, PassengerSharedCache::getStaleWriteCount)
+                .description("Shared cache writes rejected because the tier holds a newer version")
+                .register(meterRegistry);
+        FunctionCounter.builder("passenger.cache.shared.invalidations", this, PassengerSharedCache::getInvalidationCount)
+                .description("Passenger change announcements received from the invalidation channel")
+                .register(meterRegistry);
+        FunctionCounter.builder("passenger.cache.shared.errors", this, PassengerSharedCache::getErrorCount)
+                .description("Shared cache operations that failed and fell back to the database")
+                .register(meterRegistry);
+    }
+
+    // Stored form of a passenger; the version travels next to it in VersionedValue
+    public record CachedPassenger(Integer passengerId, String name, String email, Instant updatedAt) {
+    }
+}
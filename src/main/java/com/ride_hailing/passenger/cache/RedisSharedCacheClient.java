@@ -0,0 +1,171 @@
+package com.ride_hailing.passenger.cache;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Shared tier on a Redis server through Lettuce. Each key is a hash of the version ({@code v}) and,
+ * unless the key only marks a change, the value ({@code d}); the compare-and-set runs as a Lua script so
+ * it is atomic on the server. Commands share one connection each for values and strings and are
+ * pipelined where a call issues several; subscriptions use their own connection, which Lettuce
+ * re-subscribes after a reconnect. Every command fails after {@code timeout-ms}.
+ */
+@Component
+@ConditionalOnProperty(name = "passenger.cache.shared.client", havingValue = "redis")
+public class RedisSharedCacheClient implements SharedCacheClient {
+    private static final String VERSION_FIELD = "v";
+    private static final String VALUE_FIELD = "d";
+    private static final byte[] HAS_VALUE = {'1'};
+    private static final byte[] NO_VALUE = {'0'};
+    // KEYS[1] entry; ARGV version, value, whether the value is present, TTL in milliseconds
+    private static final String SET_IF_NEWER = """
+            local stored = redis.call('HGET', KEYS[1], 'v')
+            if stored then
+              stored = tonumber(stored)
+              local version = tonumber(ARGV[1])
+              if version < stored then return 0 end
+              if version == stored and (ARGV[3] == '0' or redis.call('HEXISTS', KEYS[1], 'd') == 1) then return 0 end
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'v', ARGV[1])
+            if ARGV[3] == '1' then redis.call('HSET', KEYS[1], 'd', ARGV[2]) end
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return 1
+            """;
+
+    private final RedisClient redisClient;
+    private final StatefulRedisConnection<String, byte[]> values;
+    private final StatefulRedisConnection<String, String> strings;
+    private final StatefulRedisPubSubConnection<String, String> subscriptions;
+    private final Duration timeout;
+
+    public RedisSharedCacheClient(@Value("${passenger.cache.shared.redis.uri:redis://localhost:6379}") String uri,
+                                  @Value("${passenger.cache.shared.redis.timeout-ms:200}") long timeoutMs) {
+        this.timeout = Duration.ofMillis(timeoutMs);
+        RedisURI redisUri = RedisURI.create(uri);
+        redisUri.setTimeout(timeout);
+        this.redisClient = RedisClient.create(redisUri);
+        try {
+            this.values = redisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+            this.strings = redisClient.connect();
+            this.subscriptions = redisClient.connectPubSub();
+        } catch (RuntimeException e) {
+            redisClient.shutdown();
+            throw e;
+        }
+    }
+
+    @Override
+    public VersionedValue get(String key) {
+        return toVersionedValue(values.sync().hmget(key, VERSION_FIELD, VALUE_FIELD));
+    }
+
+    @Override
+    public Map<String, VersionedValue> getAll(Collection<String> keys) {
+        Map<String, RedisFuture<List<KeyValue<String, byte[]>>>> replies = new HashMap<>();
+        for (String key : keys) {
+            replies.put(key, values.async().hmget(key, VERSION_FIELD, VALUE_FIELD));
+        }
+        Map<String, VersionedValue> found = new HashMap<>();
+        replies.forEach((key, reply) -> {
+            VersionedValue value = toVersionedValue(await(reply));
+            if (value != null) {
+                found.put(key, value);
+            }
+        });
+        return found;
+    }
+
+    @Override
+    public boolean setIfNewer(String key, VersionedValue value, Duration ttl) {
+        byte[][] args = {
+                Long.toString(value.version()).getBytes(StandardCharsets.US_ASCII),
+                value.value() == null ? new byte[0] : value.value(),
+                value.value() == null ? NO_VALUE : HAS_VALUE,
+                Long.toString(ttl.toMillis()).getBytes(StandardCharsets.US_ASCII)
+        };
+        Long stored = values.sync().eval(SET_IF_NEWER, ScriptOutputType.INTEGER, new String[]{key}, args);
+        return stored != null && stored == 1L;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        strings.sync().publish(channel, message);
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        subscriptions.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String messageChannel, String message) {
+                if (messageChannel.equals(channel)) {
+                    listener.accept(message);
+                }
+            }
+        });
+        subscriptions.sync().subscribe(channel);
+    }
+
+    @Override
+    public void incrementScores(String key, Map<String, Double> increments, int maxMembers) {
+        List<RedisFuture<?>> replies = new ArrayList<>(increments.size() + 1);
+        increments.forEach((member, increment) -> replies.add(strings.async().zincrby(key, increment, member)));
+        replies.add(strings.async().zremrangebyrank(key, 0, -maxMembers - 1L));
+        replies.forEach(this::await);
+    }
+
+    @Override
+    public List<String> topMembers(String key, int count) {
+        return strings.sync().zrevrange(key, 0, count - 1L);
+    }
+
+    @PreDestroy
+    public void close() {
+        subscriptions.close();
+        strings.close();
+        values.close();
+        redisClient.shutdown();
+    }
+
+    private static VersionedValue toVersionedValue(List<KeyValue<String, byte[]>> fields) {
+        KeyValue<String, byte[]> version = fields.get(0);
+        if (!version.hasValue()) {
+            return null;
+        }
+        KeyValue<String, byte[]> value = fields.get(1);
+        return new VersionedValue(Long.parseLong(new String(version.getValue(), StandardCharsets.US_ASCII)),
+                value.hasValue() ? value.getValue() : null);
+    }
+
+    private <T> T await(RedisFuture<T> reply) {
+        try {
+            return reply.toCompletableFuture().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
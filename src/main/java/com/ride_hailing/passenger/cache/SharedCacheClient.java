@@ -0,0 +1,48 @@
+package com.ride_hailing.passenger.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Cache tier shared by all passenger-service nodes. The operations map onto Redis: a versioned
+ * compare-and-set (a small Lua script over a hash), MGET, PUBLISH/SUBSCRIBE and a sorted set
+ * (ZINCRBY, ZREMRANGEBYRANK, ZREVRANGE). Implementations may throw any {@link RuntimeException}
+ * when the tier is unreachable; callers treat that as a miss.
+ */
+public interface SharedCacheClient {
+    VersionedValue get(String key);
+
+    /**
+     * The entries found, keyed by the requested key; absent and expired keys are left out.
+     */
+    Map<String, VersionedValue> getAll(Collection<String> keys);
+
+    /**
+     * Stores the value unless the key holds a newer version, or the same version with a value.
+     * A {@code null} value at a version marks the key as changed without a value to serve, so a
+     * reader still holding an older version cannot write it back.
+     *
+     * @return whether the value was stored
+     */
+    boolean setIfNewer(String key, VersionedValue value, Duration ttl);
+
+    void publish(String channel, String message);
+
+    void subscribe(String channel, Consumer<String> listener);
+
+    /**
+     * Adds the increments to the members' scores and keeps the {@code maxMembers} highest.
+     */
+    void incrementScores(String key, Map<String, Double> increments, int maxMembers);
+
+    /**
+     * Up to {@code count} members, highest score first.
+     */
+    List<String> topMembers(String key, int count);
+
+    record VersionedValue(long version, byte[] value) {
+    }
+}
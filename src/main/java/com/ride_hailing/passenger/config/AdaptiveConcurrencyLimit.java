@@ -0,0 +1,82 @@
+package com.ride_hailing.passenger.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows observed latency (AIMD): once per window, an average latency above
+ * the target cuts the limit by {@value #DECREASE_FACTOR}, otherwise it grows by one up to the maximum.
+ * Heavy requests may only use {@code heavyShare} of the limit, so cheap lookups keep headroom.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double heavyShare;
+    private final long targetLatencyNanos;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder windowLatencyNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowStart;
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimit(int minLimit, int maxLimit, double heavyShare,
+                                    long targetLatencyNanos, long windowNanos, long nowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.heavyShare = heavyShare;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.windowNanos = windowNanos;
+        this.windowStart = new AtomicLong(nowNanos);
+        this.limit = maxLimit;
+    }
+
+    public boolean tryAcquire(boolean heavy) {
+        int admitted = heavy ? Math.max(1, (int) (limit * heavyShare)) : limit;
+        if (inFlight.incrementAndGet() > admitted) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ends an admitted request. Only requests whose latency reflects load rather than response size
+     * should pass {@code sample}; long streams would otherwise drag the limit down.
+     */
+    public void release(long latencyNanos, boolean sample, long nowNanos) {
+        inFlight.decrementAndGet();
+        if (sample) {
+            windowLatencyNanos.add(latencyNanos);
+            windowSamples.increment();
+        }
+        long start = windowStart.get();
+        if (nowNanos - start >= windowNanos && windowStart.compareAndSet(start, nowNanos)) {
+            adjust();
+        }
+    }
+
+    private void adjust() {
+        long samples = windowSamples.sumThenReset();
+        long latency = windowLatencyNanos.sumThenReset();
+        if (samples == 0) {
+            return;
+        }
+        if (latency / samples > targetLatencyNanos) {
+            limit = Math.max(minLimit, (int) (limit * DECREASE_FACTOR));
+        } else if (limit < maxLimit) {
+            limit = limit + 1;
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,235 @@
+package com.ride_hailing.passenger.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Admission decisions for {@value #API_PREFIX}, shared by {@link AdmissionControlFilter} on the servlet
+ * stack and {@link AdmissionControlWebFilter} on the reactive one. Each client has a token bucket and
+ * every request costs tokens by endpoint; an empty bucket answers 429. A client is its remote address,
+ * or, only when {@code client-header} is set, that header's value: callers choose their own headers, so
+ * it must name one that a trusted proxy in front of the service sets and overwrites. Requests that pass
+ * are then held to an {@link AdaptiveConcurrencyLimit} driven by the latency of cheap requests; over the
+ * limit the answer is 503. Both carry Retry-After.
+ */
+@Component
+@ConditionalOnProperty(name = "passenger.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControl implements MeterBinder {
+    public static final String API_PREFIX = "/api/passenger";
+    private static final long OVERFLOW_RETRY_AFTER_SECONDS = 1;
+    private static final String OVERFLOW_CLIENT = "*";
+    private static final long FULL_MAP_SWEEP_GAP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String clientHeader;
+    private final double clientRate;
+    private final int clientBurst;
+    private final int maxClients;
+    private final int heavyCost;
+    private final int allCost;
+    private final int scanCost;
+    private final int writeCost;
+    private final int idsPerToken;
+    private final int lookupBytesPerToken;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final AtomicLong nextFullMapSweep;
+
+    public AdmissionControl(@Value("${passenger.admission.client-header:}") String clientHeader,
+                            @Value("${passenger.admission.client-rate:200}") double clientRate,
+                            @Value("${passenger.admission.client-burst:400}") int clientBurst,
+                            @Value("${passenger.admission.max-clients:100000}") int maxClients,
+                            @Value("${passenger.admission.cost.heavy:10}") int heavyCost,
+                            @Value("${passenger.admission.cost.all:100}") int allCost,
+                            @Value("${passenger.admission.cost.scan:5}") int scanCost,
+                            @Value("${passenger.admission.cost.write:2}") int writeCost,
+                            @Value("${passenger.admission.cost.ids-per-token:50}") int idsPerToken,
+                            @Value("${passenger.admission.cost.lookup-bytes-per-token:400}") int lookupBytesPerToken,
+                            @Value("${passenger.admission.min-concurrency:8}") int minConcurrency,
+                            @Value("${passenger.admission.max-concurrency:200}") int maxConcurrency,
+                            @Value("${passenger.admission.heavy-share:0.5}") double heavyShare,
+                            @Value("${passenger.admission.target-latency-ms:100}") long targetLatencyMs,
+                            @Value("${passenger.admission.window-ms:100}") long windowMs) {
+        this.clientHeader = clientHeader;
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.maxClients = maxClients;
+        this.heavyCost = heavyCost;
+        this.allCost = allCost;
+        this.scanCost = scanCost;
+        this.writeCost = writeCost;
+        this.idsPerToken = idsPerToken;
+        this.lookupBytesPerToken = lookupBytesPerToken;
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(minConcurrency, maxConcurrency, heavyShare,
+                TimeUnit.MILLISECONDS.toNanos(targetLatencyMs), TimeUnit.MILLISECONDS.toNanos(windowMs), System.nanoTime());
+        this.nextFullMapSweep = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Whether a request to {@code path}, relative to the context path, is subject to admission control.
+     */
+    public boolean applies(String path) {
+        return path.startsWith(API_PREFIX);
+    }
+
+    /**
+     * The bucket key of a request, given its header lookup and remote address.
+     */
+    public String clientOf(UnaryOperator<String> headers, String remoteAddress) {
+        if (clientHeader.isEmpty()) {
+            return remoteAddress;
+        }
+        String client = headers.apply(clientHeader);
+        return client == null || client.isBlank() ? remoteAddress : client;
+    }
+
+    /**
+     * Tokens a request costs: single-row reads are 1, id lists grow with the number of ids,
+     * and full scans cost enough that one client cannot run many of them back to back.
+     * {@code contentLength} is negative when unknown; {@code idValues} are the {@code id} query values, if any.
+     */
+    public int cost(String method, String path, long contentLength, List<String> idValues) {
+        String endpoint = path.substring(API_PREFIX.length());
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (endpoint.equals("/all") || endpoint.equals("/bulk")) {
+            return allCost;
+        }
+        if (endpoint.equals("/page") || endpoint.equals("/changes") || endpoint.equals("/search")) {
+            return scanCost;
+        }
+        if (endpoint.equals("/lookup")) {
+            return contentLength < 0 ? allCost : 1 + (int) Math.min(allCost, contentLength / lookupBytesPerToken);
+        }
+        if (read && (endpoint.isEmpty() || endpoint.equals("/"))) {
+            return 1 + Math.min(allCost, countIds(idValues) / idsPerToken);
+        }
+        return read ? 1 : writeCost;
+    }
+
+    // Counts ids without parsing them: repeated ?id= values and comma-separated lists both count
+    private static int countIds(List<String> idValues) {
+        if (idValues == null) {
+            return 0;
+        }
+        int count = 0;
+        for (String value : idValues) {
+            count++;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) == ',') {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Admits the request or says why not. An admitted request must be ended with exactly one
+     * {@link #release} call with the same {@code start} and {@code cost}.
+     *
+     * @return {@code null} when admitted
+     */
+    public Rejection tryAdmit(String client, int cost, long start) {
+        long waitNanos = bucket(client, start).tryAcquire(cost, start);
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            return new Rejection(HttpStatus.TOO_MANY_REQUESTS, ceilSeconds(waitNanos), "Rate limit exceeded");
+        }
+        if (!concurrencyLimit.tryAcquire(cost >= heavyCost)) {
+            shed.increment();
+            return new Rejection(HttpStatus.SERVICE_UNAVAILABLE, OVERFLOW_RETRY_AFTER_SECONDS, "Server is overloaded");
+        }
+        return null;
+    }
+
+    public void release(long start, int cost) {
+        long now = System.nanoTime();
+        concurrencyLimit.release(now - start, cost < heavyCost, now);
+    }
+
+    private static long ceilSeconds(long nanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return (nanos + second - 1) / second;
+    }
+
+    private TokenBucket bucket(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            sweepFullMap(now);
+        }
+        if (buckets.size() >= maxClients) {
+            // Every bucket is in use: unknown clients share one bucket instead of growing the map
+            client = OVERFLOW_CLIENT;
+        }
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(clientRate, clientBurst, now));
+    }
+
+    // The scheduled sweep does not run with passenger.scheduling.enabled=false, so a full map is swept by the
+    // request that finds it full: one request at a time, at most once per gap, as the scan is linear in the clients
+    private void sweepFullMap(long now) {
+        long next = nextFullMapSweep.get();
+        if (now - next >= 0 && nextFullMapSweep.compareAndSet(next, now + FULL_MAP_SWEEP_GAP_NANOS)) {
+            evictFullBuckets(now);
+        }
+    }
+
+    // Off the request path: the scan is linear in the number of clients
+    @Scheduled(fixedDelayString = "${passenger.admission.sweep-interval-ms:60000}")
+    public void evictFullBuckets() {
+        evictFullBuckets(System.nanoTime());
+    }
+
+    private void evictFullBuckets(long now) {
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("passenger.admission.rejected", this, AdmissionControl::getRateLimitedCount)
+                .tag("reason", "rate_limited")
+                .description("Requests rejected with 429 because the client's token bucket was empty")
+                .register(meterRegistry);
+        FunctionCounter.builder("passenger.admission.rejected", this, AdmissionControl::getShedCount)
+                .tag("reason", "overloaded")
+                .description("Requests rejected with 503 because the adaptive concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("passenger.admission.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Admitted requests in progress")
+                .register(meterRegistry);
+        Gauge.builder("passenger.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("passenger.admission.clients", buckets, ConcurrentHashMap::size)
+                .description("Clients with a partially drained token bucket")
+                .register(meterRegistry);
+    }
+
+    public record Rejection(HttpStatus status, long retryAfterSeconds, String message) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.ride_hailing.passenger.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "passenger.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+    // Where WebMvcObservationAutoConfiguration registers ServerHttpObservationFilter; it exposes no constant for it
+    static final int OBSERVATION_FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(ObjectMapper objectMapper,
+                                                                                 AdmissionControl admissionControl) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(objectMapper, admissionControl));
+        // Inside the observation, so 429s and 503s show up in http.server.requests, and ahead of everything else
+        registration.setOrder(OBSERVATION_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ride_hailing.passenger.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ride_hailing.passenger.config.AdmissionControl.Rejection;
+import com.ride_hailing.passenger.exception.ErrorMessage;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link AdmissionControl} on the servlet stack, registered by {@link AdmissionControlConfig} right
+ * behind the HTTP observation filter: a rejected request is still counted in the request metrics but
+ * never reaches the controller or the connection pool.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private final ObjectMapper objectMapper;
+    private final AdmissionControl admissionControl;
+
+    public AdmissionControlFilter(ObjectMapper objectMapper, AdmissionControl admissionControl) {
+        this.objectMapper = objectMapper;
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionControl.applies(path(request));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        String[] idValues = request.getParameterValues("id");
+        int cost = admissionControl.cost(request.getMethod(), path(request), request.getContentLengthLong(),
+                idValues == null ? null : List.of(idValues));
+        String client = admissionControl.clientOf(request::getHeader, request.getRemoteAddr());
+
+        Rejection rejection = admissionControl.tryAdmit(client, cost, start);
+        if (rejection != null) {
+            reject(response, rejection);
+            return;
+        }
+
+        Release release = new Release(start, cost);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(release);
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, Rejection rejection) throws IOException {
+        response.setStatus(rejection.status().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorMessage.builder().message(rejection.message()).build());
+    }
+
+    // Releases the concurrency slot once, when the request - or its async continuation - ends
+    private class Release implements Runnable, AsyncListener {
+        private final long start;
+        private final int cost;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Release(long start, int cost) {
+            this.start = start;
+            this.cost = cost;
+        }
+
+        @Override
+        public void run() {
+            if (released.compareAndSet(false, true)) {
+                admissionControl.release(start, cost);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
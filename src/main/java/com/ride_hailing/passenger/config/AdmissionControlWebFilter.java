@@ -0,0 +1,82 @@
+package com.ride_hailing.passenger.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ride_hailing.passenger.config.AdmissionControl.Rejection;
+import com.ride_hailing.passenger.exception.ErrorMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * {@link AdmissionControl} on the reactive stack, ahead of every other WebFilter. An admitted request
+ * holds its concurrency slot until the response completes, fails or the client cancels it, so a
+ * streamed NDJSON response counts until its last row is written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "passenger.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlWebFilter implements WebFilter {
+    private final ObjectMapper objectMapper;
+    private final AdmissionControl admissionControl;
+
+    public AdmissionControlWebFilter(ObjectMapper objectMapper, AdmissionControl admissionControl) {
+        this.objectMapper = objectMapper;
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (!admissionControl.applies(path)) {
+            return chain.filter(exchange);
+        }
+
+        long start = System.nanoTime();
+        int cost = admissionControl.cost(request.getMethod().name(), path, request.getHeaders().getContentLength(),
+                request.getQueryParams().get("id"));
+        String client = admissionControl.clientOf(request.getHeaders()::getFirst, remoteAddress(request));
+
+        Rejection rejection = admissionControl.tryAdmit(client, cost, start);
+        if (rejection != null) {
+            return reject(exchange.getResponse(), rejection);
+        }
+        return chain.filter(exchange)
+                .doFinally(signal -> admissionControl.release(start, cost));
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, Rejection rejection) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(ErrorMessage.builder().message(rejection.message()).build());
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(rejection.status());
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
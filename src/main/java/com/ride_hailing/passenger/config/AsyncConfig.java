@@ -0,0 +1,62 @@
+package com.ride_hailing.passenger.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // With virtual threads the pool size still caps concurrent chunk queries, so a lookup cannot drain the connection pool.
+    @Bean
+    public AsyncTaskExecutor passengerLookupExecutor(
+            Environment environment,
+            @Value("${passenger.lookup.executor.pool-size:4}") int poolSize,
+            @Value("${passenger.lookup.executor.queue-capacity:1000}") int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("passenger-lookup-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize);
+            executor.setTaskDecorator(ReplicaRouting::decorate);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("passenger-lookup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Chunk lookups follow the request's read-your-writes pin
+        executor.setTaskDecorator(ReplicaRouting::decorate);
+        return executor;
+    }
+
+    // Declaring any Executor bean makes Boot back off from its own, so MVC async requests keep theirs here;
+    // async controller methods follow the request's read-your-writes pin like chunk lookups do.
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(Environment environment,
+                                                     ObjectProvider<ThreadPoolTaskExecutorBuilder> threadPoolBuilder,
+                                                     ObjectProvider<SimpleAsyncTaskExecutorBuilder> simpleBuilder) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return simpleBuilder.getIfAvailable(SimpleAsyncTaskExecutorBuilder::new)
+                    .virtualThreads(true)
+                    .taskDecorator(ReplicaRouting::decorate)
+                    .build();
+        }
+        return threadPoolBuilder.getIfAvailable(ThreadPoolTaskExecutorBuilder::new)
+                .taskDecorator(ReplicaRouting::decorate)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ride_hailing.passenger.config;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands request log events to a single background writer through a bounded queue.
+ * When the queue is full the event is dropped and counted rather than blocking the request thread.
+ */
+public class AsyncRequestLogger implements AutoCloseable {
+    private final Logger logger;
+    private final BlockingQueue<RequestLogEvent> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public AsyncRequestLogger(Logger logger, int queueCapacity) {
+        this.logger = logger;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = new Thread(this::drain, "rest-logging");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public boolean submit(RequestLogEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                RequestLogEvent event = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    write(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write request log event", e);
+            }
+        }
+    }
+
+    private void write(RequestLogEvent event) {
+        logger.info("METHOD = {}; REQUESTURI = {}; STATUS = {}", event.method(), event.requestUri(), event.status());
+        if (event.hasBody() && logger.isInfoEnabled()) {
+            if (event.isTruncated()) {
+                logger.info("RESPONSE = {}... ({} of {} bytes)", event.decodeBody(), event.body().length, event.bodyLength());
+            } else {
+                logger.info("RESPONSE = {}", event.decodeBody());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ride_hailing.passenger.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Writes straight through to the underlying response while keeping a copy of at most
+ * {@code maxCapturedBytes} of the body, so logging never buffers a whole response.
+ */
+public class BodyCaptureResponseWrapper extends HttpServletResponseWrapper {
+    private final byte[] captured;
+    private int capturedLength;
+    private long bodyLength;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public BodyCaptureResponseWrapper(HttpServletResponse response, int maxCapturedBytes) {
+        super(response);
+        this.captured = new byte[Math.max(0, maxCapturedBytes)];
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CapturingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    public void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    public byte[] getCapturedBody() {
+        return Arrays.copyOf(captured, capturedLength);
+    }
+
+    public long getBodyLength() {
+        return bodyLength;
+    }
+
+    private void capture(byte[] bytes, int offset, int length) {
+        bodyLength += length;
+        int remaining = captured.length - capturedLength;
+        if (remaining > 0) {
+            int toCopy = Math.min(remaining, length);
+            System.arraycopy(bytes, offset, captured, capturedLength, toCopy);
+            capturedLength += toCopy;
+        }
+    }
+
+    private class CapturingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        private CapturingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bodyLength++;
+            if (capturedLength < captured.length) {
+                captured[capturedLength++] = (byte) b;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            capture(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.ride_hailing.passenger.config;
+
+public enum BodyLoggingMode {
+    NONE,
+    SAMPLED,
+    FULL
+}
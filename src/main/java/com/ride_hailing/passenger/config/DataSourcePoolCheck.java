@@ -0,0 +1,105 @@
+package com.ride_hailing.passenger.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warns at startup when the connection pool and the threads that use it do not fit together:
+ * far more request threads than connections (requests queue for a connection up to the
+ * connection timeout) or more connections than threads could ever hold (idle database sessions).
+ */
+@Log4j2
+@Component
+public class DataSourcePoolCheck {
+    // Scheduled jobs (outbox relay, purge) run on Spring's single scheduling thread
+    private static final int BACKGROUND_THREADS = 1;
+    private static final long UNBOUNDED_CONNECTION_TIMEOUT_MS = 5000;
+
+    private final ObjectProvider<DataSource> dataSource;
+    private final Environment environment;
+    private final int requestThreads;
+    private final int lookupThreads;
+    private final int threadsPerConnection;
+    private final boolean openInView;
+
+    public DataSourcePoolCheck(ObjectProvider<DataSource> dataSource,
+                               Environment environment,
+                               @Value("${server.tomcat.threads.max:200}") int requestThreads,
+                               @Value("${passenger.lookup.executor.pool-size:4}") int lookupThreads,
+                               @Value("${passenger.datasource.max-threads-per-connection:4}") int threadsPerConnection,
+                               @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        this.dataSource = dataSource;
+        this.environment = environment;
+        this.requestThreads = requestThreads;
+        this.lookupThreads = lookupThreads;
+        this.threadsPerConnection = threadsPerConnection;
+        this.openInView = openInView;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        HikariDataSource hikari = primaryPool(dataSource.getIfAvailable());
+        if (hikari == null) {
+            return;
+        }
+        boolean virtualThreads = Threading.VIRTUAL.isActive(environment);
+        warnings(hikari.getMaximumPoolSize(), virtualThreads ? -1 : requestThreads, lookupThreads,
+                hikari.getConnectionTimeout(), threadsPerConnection, openInView)
+                .forEach(log::warn);
+    }
+
+    // With replica routing the application datasource is a proxy in front of the primary pool
+    private static HikariDataSource primaryPool(DataSource dataSource) {
+        try {
+            return dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@code requestThreads} is -1 when requests run on virtual threads and are not bounded by a pool.
+     */
+    public static List<String> warnings(int poolSize, int requestThreads, int lookupThreads, long connectionTimeoutMs,
+                                        int threadsPerConnection, boolean openInView) {
+        List<String> warnings = new ArrayList<>();
+        if (requestThreads < 0) {
+            if (connectionTimeoutMs > UNBOUNDED_CONNECTION_TIMEOUT_MS) {
+                warnings.add(String.format("Virtual request threads are unbounded and the pool has %d connections: "
+                        + "waiting requests pile up for %d ms before failing, lower spring.datasource.hikari.connection-timeout",
+                        poolSize, connectionTimeoutMs));
+            }
+            return warnings;
+        }
+
+        int threads = requestThreads + lookupThreads + BACKGROUND_THREADS;
+        if (threads > poolSize * threadsPerConnection) {
+            warnings.add(String.format("%d request and worker threads share %d connections: under load requests wait up to "
+                    + "%d ms for a connection, raise passenger.datasource.pool-size or lower server.tomcat.threads.max",
+                    threads, poolSize, connectionTimeoutMs));
+        }
+        if (poolSize > threads) {
+            warnings.add(String.format("Pool of %d connections is larger than the %d threads that can use it, "
+                    + "the extra connections stay idle on the database", poolSize, threads));
+        }
+        if (openInView && requestThreads > poolSize) {
+            warnings.add("spring.jpa.open-in-view is on: a request that touches JPA keeps its connection until the "
+                    + "response is written, so the pool fills up before the request threads do");
+        }
+        return warnings;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ride_hailing.passenger.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Hikari pool from {@code passenger.datasource.pool-size}: a number is used as is and
+ * {@code auto} derives it from the core count as {@code cores * 2 + 1}. The pool is fixed size
+ * (minimum idle = maximum), so connections are not opened under load. Unset leaves Hikari's settings alone.
+ */
+@Log4j2
+@Component
+public class DataSourcePoolSizer implements BeanPostProcessor {
+    public static final String AUTO = "auto";
+
+    private final String poolSize;
+
+    public DataSourcePoolSizer(@Value("${passenger.datasource.pool-size:}") String poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public static int poolSize(String setting, int cores) {
+        return AUTO.equalsIgnoreCase(setting) ? cores * 2 + 1 : Integer.parseInt(setting);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource && !poolSize.isBlank()) {
+            int size = poolSize(poolSize.trim(), Runtime.getRuntime().availableProcessors());
+            dataSource.setMaximumPoolSize(size);
+            dataSource.setMinimumIdle(size);
+            log.info("Connection pool {} sized to {} connections", dataSource.getPoolName(), size);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ride_hailing.passenger.config;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.util.PassengerColumnar;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes {@code List<PassengerDTO>} as {@link PassengerColumnar} for clients that ask for
+ * {@value #MEDIA_TYPE_VALUE}. CBOR and Smile come from Spring MVC's default Jackson converters.
+ */
+@Component
+public class PassengerColumnarHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<PassengerDTO>> {
+    public static final String MEDIA_TYPE_VALUE = "application/x-passenger-columnar";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public PassengerColumnarHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return isPassengerList(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return type != null && isPassengerList(type) && canWrite(mediaType);
+    }
+
+    private static boolean isPassengerList(Type type) {
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvableType.toClass())
+                && resolvableType.asCollection().resolveGeneric(0) == PassengerDTO.class;
+    }
+
+    @Override
+    public List<PassengerDTO> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return PassengerColumnar.read(inputMessage.getBody());
+    }
+
+    @Override
+    protected List<PassengerDTO> readInternal(Class<? extends List<PassengerDTO>> clazz, HttpInputMessage inputMessage) throws IOException {
+        return PassengerColumnar.read(inputMessage.getBody());
+    }
+
+    @Override
+    protected void writeInternal(List<PassengerDTO> passengers, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        PassengerColumnar.write(passengers, outputMessage.getBody());
+    }
+}
@@ -0,0 +1,39 @@
+package com.ride_hailing.passenger.config;
+
+import com.ride_hailing.passenger.cache.PassengerSharedCache;
+import com.ride_hailing.passenger.dto.BulkCreateResultDTO;
+import com.ride_hailing.passenger.dto.PassengerChangeEventDTO;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncDTO;
+import com.ride_hailing.passenger.exception.ErrorMessage;
+import com.ride_hailing.passenger.model.Passenger;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native-image hints that Spring AOT cannot derive. Controller signatures and JPA entities are
+ * covered by AOT itself; what is left are the types Jackson binds outside a controller signature
+ * (NDJSON streams, the bulk reader, event files, filter error bodies, shared cache entries) and the {@link Passenger}
+ * entity's generated members, which Hibernate reaches reflectively. Lombok builders compile to
+ * plain code called directly and need no hints.
+ */
+public class PassengerRuntimeHints implements RuntimeHintsRegistrar {
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                PassengerDTO.class,
+                PassengerSyncDTO.class,
+                PassengerChangeEventDTO.class,
+                BulkCreateResultDTO.class,
+                ErrorMessage.class,
+                PassengerSharedCache.CachedPassenger.class);
+        hints.reflection().registerType(Passenger.class,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ride_hailing.passenger.config;
+
+import com.ride_hailing.passenger.dto.PassengerTransferResultDTO;
+import com.ride_hailing.passenger.service.PassengerTransferService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Runs one bulk export or import at startup when {@code passenger.transfer.mode} is set. With the
+ * transfer profile nothing else keeps the process alive, so it exits once the transfer is done; a
+ * failed transfer fails the startup and the process exits non-zero.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "passenger.transfer.mode")
+public class PassengerTransferRunner implements ApplicationRunner {
+    private final PassengerTransferService passengerTransferService;
+    private final String mode;
+    private final Path file;
+
+    public PassengerTransferRunner(PassengerTransferService passengerTransferService,
+                                   @Value("${passenger.transfer.mode}") String mode,
+                                   @Value("${passenger.transfer.file:passengers.pcf}") Path file) {
+        this.passengerTransferService = passengerTransferService;
+        this.mode = mode;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        PassengerTransferResultDTO result = switch (mode) {
+            case "export" -> passengerTransferService.export(file);
+            case "import" -> passengerTransferService.importFile(file);
+            default -> throw new IllegalArgumentException("passenger.transfer.mode must be export or import, not " + mode);
+        };
+        log.info("Passenger {} of {} finished: {}", mode, file, result);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ride_hailing.passenger.config;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * R2DBC access for the reactive variant (run with --spring.profiles.active=reactive). Only reads go through
+ * it; JPA, Flyway and the JDBC pool stay as they are and carry the writes, so both drivers must open the
+ * same database. Boot's R2DBC auto-configuration is excluded in application.properties: it would add a
+ * second transaction manager next to the JPA one in every mode.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+    private static final String H2_JDBC_PREFIX = "jdbc:h2:";
+
+    // Not a bean: a ConnectionFactory bean switches off Boot's JDBC DataSource, which JPA and Flyway still need
+    private ConnectionPool connectionPool;
+
+    /**
+     * Without {@code passenger.r2dbc.url} the H2 database of the JDBC pool is opened in-process, unpooled:
+     * an embedded session costs no round trip, and under load r2dbc-pool handed released H2 connections
+     * to some waiting requests only after seconds. The URL comes from the already bound properties, so a
+     * per-start name such as the bench profile's resolves to the same database. Any other URL is pooled.
+     */
+    @Bean
+    public DatabaseClient databaseClient(
+            DataSourceProperties dataSourceProperties,
+            @Value("${passenger.r2dbc.url:}") String url,
+            @Value("${passenger.r2dbc.pool.max-size:20}") int maxSize,
+            @Value("${passenger.r2dbc.pool.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (url.isBlank()) {
+            String jdbcUrl = dataSourceProperties.determineUrl();
+            if (jdbcUrl == null || !jdbcUrl.startsWith(H2_JDBC_PREFIX)) {
+                throw new IllegalStateException("passenger.r2dbc.url must be set for datasource " + jdbcUrl);
+            }
+            return DatabaseClient.create(new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                    .url(jdbcUrl.substring(H2_JDBC_PREFIX.length()))
+                    .username(username)
+                    .password(password)
+                    .build()));
+        }
+
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("passenger-r2dbc")
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(acquireTimeoutMs))
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Where R2DBC queries run. The in-process H2 driver executes a query, and fetches each further batch
+     * of rows, on the thread that subscribes or requests, so without {@code passenger.r2dbc.url} queries
+     * move to the bounded elastic scheduler instead of blocking Netty's event loops. A network driver
+     * does not block and runs where it is called.
+     */
+    @Bean
+    public Scheduler r2dbcScheduler(@Value("${passenger.r2dbc.url:}") String url) {
+        return url.isBlank() ? Schedulers.boundedElastic() : Schedulers.immediate();
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    // Tomcat is on the classpath for the servlet stack and would otherwise be picked; serve from Netty's event loops
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,119 @@
+package com.ride_hailing.passenger.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Read-your-writes for replica routing: a client that sent a write is pinned to the primary for
+ * {@code passenger.datasource.read-your-writes-seconds}, long enough for replicas to catch up.
+ * Browsers keep the pin in a cookie; other clients echo the {@value #PRIMARY_UNTIL_HEADER} header.
+ * Both carry {@code <epoch millis>.<HMAC>}: a pin the service did not issue, or one reaching further
+ * than a window ahead, is ignored, so a client cannot keep itself off the replicas. Nodes behind one
+ * load balancer share {@code passenger.datasource.read-your-writes-secret}; without it each node signs
+ * with its own random key and a pin only holds on the node that issued it.
+ */
+@Component
+@ConditionalOnProperty(name = "passenger.datasource.replica-urls")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String PRIMARY_UNTIL_HEADER = "X-Primary-Until";
+    public static final String PRIMARY_UNTIL_COOKIE = "passenger-primary-until";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 16;
+
+    private final Duration window;
+    private final SecretKeySpec key;
+
+    public ReadYourWritesFilter(@Value("${passenger.datasource.read-your-writes-seconds:5}") long windowSeconds,
+                                @Value("${passenger.datasource.read-your-writes-secret:}") String secret) {
+        this.window = Duration.ofSeconds(windowSeconds);
+        byte[] keyBytes = new byte[32];
+        if (secret.isBlank()) {
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, MAC_ALGORITHM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write && !window.isZero()) {
+            // Set before the chain runs, while the response headers can still be written
+            String pin = sign(now + window.toMillis());
+            response.setHeader(PRIMARY_UNTIL_HEADER, pin);
+            Cookie cookie = new Cookie(PRIMARY_UNTIL_COOKIE, pin);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) window.toSeconds());
+            response.addCookie(cookie);
+        }
+
+        if (write || isPinned(request, now)) {
+            try (ReplicaRouting.Scope ignored = ReplicaRouting.pinToPrimary()) {
+                filterChain.doFilter(request, response);
+            }
+        } else {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private boolean isPinned(HttpServletRequest request, long now) {
+        String value = request.getHeader(PRIMARY_UNTIL_HEADER);
+        if (value == null && request.getCookies() != null) {
+            value = Arrays.stream(request.getCookies())
+                    .filter(cookie -> PRIMARY_UNTIL_COOKIE.equals(cookie.getName()))
+                    .map(Cookie::getValue)
+                    .findFirst()
+                    .orElse(null);
+        }
+        int dot = value == null ? -1 : value.indexOf('.');
+        if (dot < 0) {
+            return false;
+        }
+        long primaryUntil;
+        try {
+            primaryUntil = Long.parseLong(value.substring(0, dot));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        // A whole window of slack beyond the limit covers clock skew between the nodes that sign
+        return primaryUntil > now && primaryUntil <= now + 2 * window.toMillis()
+                && MessageDigest.isEqual(sign(primaryUntil).getBytes(StandardCharsets.US_ASCII),
+                value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String sign(long primaryUntil) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            byte[] tag = mac.doFinal(String.valueOf(primaryUntil).getBytes(StandardCharsets.US_ASCII));
+            return primaryUntil + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(tag, MAC_BYTES));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ride_hailing.passenger.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only side of the routing datasource. Connections are handed out round-robin across the
+ * replicas that are not ejected; a replica that fails to connect or fails the periodic health
+ * check is ejected for {@code ejectFor} and then tried again. With every replica ejected, or while
+ * the caller is pinned by read-your-writes, connections come from the primary.
+ */
+@Log4j2
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long ejectForNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, Duration ejectFor) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(index -> new Replica(index, replicas.get(index)))
+                .toList();
+        this.ejectForNanos = ejectFor.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReplicaRouting.isPinnedToPrimary()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isEjected()) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                eject(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("ReplicaDataSource uses the credentials of its replica pools");
+    }
+
+    @Scheduled(fixedDelayString = "${passenger.datasource.replica-health-check-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (replica.isEjected()) {
+                    log.info("Replica {} is healthy again", replica.index);
+                }
+                replica.ejectedUntil = 0;
+            } catch (SQLException e) {
+                eject(replica, e);
+            }
+        }
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> !replica.isEjected()).count();
+    }
+
+    private void eject(Replica replica, SQLException cause) {
+        if (!replica.isEjected()) {
+            log.warn("Ejecting replica {} for {} ms: {}", replica.index, ejectForNanos / 1_000_000, cause.getMessage());
+        }
+        replica.ejectedUntil = System.nanoTime() + ejectForNanos;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final int index;
+        private final DataSource dataSource;
+        private volatile long ejectedUntil;
+
+        private Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+
+        boolean isEjected() {
+            return ejectedUntil != 0 && System.nanoTime() - ejectedUntil < 0;
+        }
+    }
+}
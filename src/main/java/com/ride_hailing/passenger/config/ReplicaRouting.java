@@ -0,0 +1,57 @@
+package com.ride_hailing.passenger.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread read-your-writes pin: while set, read-only transactions use the primary instead of a replica.
+ * The pin is carried over to the lookup executor by {@link #decorate(Runnable)}.
+ */
+public final class ReplicaRouting {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED_TO_PRIMARY.get());
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        try (Scope ignored = pin(true)) {
+            return work.get();
+        }
+    }
+
+    /**
+     * Pins the current thread to the primary until the returned scope is closed.
+     */
+    public static Scope pinToPrimary() {
+        return pin(true);
+    }
+
+    public static Runnable decorate(Runnable task) {
+        boolean pinned = isPinnedToPrimary();
+        return () -> {
+            try (Scope ignored = pin(pinned)) {
+                task.run();
+            }
+        };
+    }
+
+    private static Scope pin(boolean pinned) {
+        Boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(pinned);
+        return () -> {
+            if (previous == null) {
+                PINNED_TO_PRIMARY.remove();
+            } else {
+                PINNED_TO_PRIMARY.set(previous);
+            }
+        };
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ride_hailing.passenger.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enabled by {@code passenger.datasource.replica-urls}. The application datasource becomes a lazy proxy
+ * over the primary pool that switches to {@link ReplicaDataSource} when a connection is marked
+ * read-only before first use, which is what {@code @Transactional(readOnly = true)} does. Replica pools
+ * copy the primary pool's settings and credentials.
+ */
+@Configuration
+@ConditionalOnProperty(name = "passenger.datasource.replica-urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                               @Value("${passenger.datasource.replica-urls}") List<String> replicaUrls,
+                                               @Value("${passenger.datasource.replica-eject-seconds:30}") long ejectSeconds,
+                                               @Value("${passenger.datasource.replica-migrate:false}") boolean migrate,
+                                               @Value("${spring.flyway.locations:classpath:db/migration}") String[] locations) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setPoolName("passenger-replica-" + i);
+            config.setReadOnly(true);
+            // Replicas may be down at startup; the health check ejects them instead of failing the application
+            config.setInitializationFailTimeout(-1);
+            HikariDataSource replica = new HikariDataSource(config);
+            if (migrate) {
+                // Local stand-in replicas (separate H2 databases) need the schema that replication would provide
+                Flyway.configure().dataSource(replica).locations(locations).load().migrate();
+            }
+            replicas.add(replica);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, Duration.ofSeconds(ejectSeconds));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ride_hailing.passenger.config;
+
+import lombok.Builder;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+@Builder
+public record RequestLogEvent(
+        String method,
+        String requestUri,
+        int status,
+        byte[] body,
+        long bodyLength,
+        String characterEncoding
+) {
+    public boolean hasBody() {
+        return body != null;
+    }
+
+    public boolean isTruncated() {
+        return body != null && bodyLength > body.length;
+    }
+
+    public String decodeBody() {
+        Charset charset = characterEncoding == null || !Charset.isSupported(characterEncoding)
+                ? StandardCharsets.UTF_8
+                : Charset.forName(characterEncoding);
+        return new String(body, charset);
+    }
+}
@@ -1,42 +1,136 @@
 package com.ride_hailing.passenger.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
-public class RestLoggingFilter extends OncePerRequestFilter {
+public class RestLoggingFilter extends OncePerRequestFilter implements DisposableBean, MeterBinder {
 
     private static final Logger logger = LoggerFactory.getLogger(RestLoggingFilter.class);
 
+    private final BodyLoggingMode bodyLoggingMode;
+    private final double bodySampleRate;
+    private final int maxBodyBytes;
+    private final AsyncRequestLogger asyncRequestLogger;
+
+    public RestLoggingFilter(@Value("${passenger.logging.body-mode:SAMPLED}") BodyLoggingMode bodyLoggingMode,
+                             @Value("${passenger.logging.body-sample-rate:0.01}") double bodySampleRate,
+                             @Value("${passenger.logging.max-body-bytes:1024}") int maxBodyBytes,
+                             @Value("${passenger.logging.queue-capacity:10000}") int queueCapacity) {
+        this.bodyLoggingMode = bodyLoggingMode;
+        this.bodySampleRate = bodySampleRate;
+        this.maxBodyBytes = maxBodyBytes;
+        this.asyncRequestLogger = new AsyncRequestLogger(logger, queueCapacity);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        if (!logger.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
+        if (!shouldCaptureBody()) {
+            filterChain.doFilter(request, response);
+            submit(request, response, null);
+            return;
+        }
+
+        BodyCaptureResponseWrapper responseWrapper = new BodyCaptureResponseWrapper(response, maxBodyBytes);
         filterChain.doFilter(request, responseWrapper);
 
-        byte[] content = responseWrapper.getContentAsByteArray();
-        String responseBody = getStringValue(content, response.getCharacterEncoding());
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new CompletionListener(request, responseWrapper));
+        } else {
+            responseWrapper.flushWriter();
+            submit(request, response, responseWrapper);
+        }
+    }
 
-        logger.info("METHOD = {}; REQUESTURI = {}", request.getMethod(), request.getRequestURI());
+    public long getDroppedLogCount() {
+        return asyncRequestLogger.getDroppedCount();
+    }
 
-        logger.info("RESPONSE = {}", responseBody);
+    public int getLogQueueSize() {
+        return asyncRequestLogger.getQueueSize();
+    }
 
-        responseWrapper.copyBodyToResponse();
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("passenger.logging.dropped", this, RestLoggingFilter::getDroppedLogCount)
+                .description("Request log events dropped because the log queue was full")
+                .register(meterRegistry);
+        Gauge.builder("passenger.logging.queue.size", this, RestLoggingFilter::getLogQueueSize)
+                .description("Request log events waiting to be written")
+                .register(meterRegistry);
     }
 
-    private String getStringValue(byte[] contentAsByteArray, String characterEncoding) throws UnsupportedEncodingException {
-        return new String(contentAsByteArray, characterEncoding);
+    @Override
+    public void destroy() {
+        asyncRequestLogger.close();
     }
 
-}
\ No newline at end of file
+    private boolean shouldCaptureBody() {
+        return switch (bodyLoggingMode) {
+            case NONE -> false;
+            case FULL -> true;
+            case SAMPLED -> ThreadLocalRandom.current().nextDouble() < bodySampleRate;
+        };
+    }
+
+    private void submit(HttpServletRequest request, HttpServletResponse response, BodyCaptureResponseWrapper captured) {
+        asyncRequestLogger.submit(RequestLogEvent.builder()
+                .method(request.getMethod())
+                .requestUri(request.getRequestURI())
+                .status(response.getStatus())
+                .body(captured == null ? null : captured.getCapturedBody())
+                .bodyLength(captured == null ? 0 : captured.getBodyLength())
+                .characterEncoding(response.getCharacterEncoding())
+                .build());
+    }
+
+    private class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final BodyCaptureResponseWrapper responseWrapper;
+
+        private CompletionListener(HttpServletRequest request, BodyCaptureResponseWrapper responseWrapper) {
+            this.request = request;
+            this.responseWrapper = responseWrapper;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            submit(request, responseWrapper, responseWrapper);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ride_hailing.passenger.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Runs the outbox relay and the purge job; passenger.scheduling.enabled=false turns background jobs off.
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "passenger.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
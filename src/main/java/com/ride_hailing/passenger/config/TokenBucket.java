@@ -0,0 +1,50 @@
+package com.ride_hailing.passenger.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the only state is the time at which the bucket would be
+ * full again, updated with one CAS per request. {@code ratePerSecond} tokens are added per second up
+ * to {@code burst}; a request of {@code cost} tokens is admitted when that many are available.
+ */
+public final class TokenBucket {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final int burst;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.nanosPerToken = Math.max(1, (long) (NANOS_PER_SECOND / ratePerSecond));
+        this.burst = burst;
+        this.burstNanos = nanosPerToken * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes {@code cost} tokens, capped at the burst size so every request can eventually pass.
+     * Returns 0 when admitted, otherwise the nanoseconds until enough tokens will have been added.
+     */
+    public long tryAcquire(int cost, long nowNanos) {
+        long costNanos = nanosPerToken * Math.min(Math.max(cost, 1), burst);
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + costNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A full bucket carries no state worth keeping and can be dropped.
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ride_hailing.passenger.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events while virtual threads are enabled, counting how often
+ * (and where) a virtual thread blocked while pinned to its carrier, e.g. inside a synchronized block
+ * of the JDBC driver or connection pool.
+ */
+@Log4j2
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_TRACKED_SITES = 100;
+
+    private final Duration threshold;
+    private final Duration reportInterval;
+    private final LongAdder pinnedCount = new LongAdder();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+    private final Map<String, LongAdder> pinnedSites = new ConcurrentHashMap<>();
+    private volatile long lastReport = System.nanoTime();
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${passenger.virtual-threads.pinning-threshold-ms:20}") long thresholdMillis,
+                                       @Value("${passenger.virtual-threads.pinning-report-seconds:60}") long reportSeconds) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.reportInterval = Duration.ofSeconds(reportSeconds);
+    }
+
+    @Override
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::record);
+        recordingStream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+        report();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    public Duration getPinnedTime() {
+        return Duration.ofNanos(pinnedNanos.get());
+    }
+
+    public Map<String, Long> getPinnedSites() {
+        Map<String, Long> sites = new ConcurrentHashMap<>();
+        pinnedSites.forEach((site, count) -> sites.put(site, count.sum()));
+        return sites;
+    }
+
+    private void record(RecordedEvent event) {
+        pinnedCount.increment();
+        pinnedNanos.addAndGet(event.getDuration().toNanos());
+        String site = pinnedSite(event.getStackTrace());
+        if (pinnedSites.size() < MAX_TRACKED_SITES || pinnedSites.containsKey(site)) {
+            pinnedSites.computeIfAbsent(site, key -> new LongAdder()).increment();
+        }
+
+        long now = System.nanoTime();
+        if (now - lastReport >= reportInterval.toNanos()) {
+            lastReport = now;
+            report();
+        }
+    }
+
+    private void report() {
+        if (pinnedCount.sum() > 0) {
+            log.warn("Virtual threads pinned {} times for {} ms in total; top sites {}",
+                    pinnedCount.sum(), getPinnedTime().toMillis(), getPinnedSites());
+        }
+    }
+
+    private static String pinnedSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+}
@@ -0,0 +1,22 @@
+package com.ride_hailing.passenger.controller;
+
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.dto.PassengerCacheStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/passenger/cache")
+@RequiredArgsConstructor
+public class PassengerCacheController {
+    private final PassengerCache passengerCache;
+
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PassengerCacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(passengerCache.stats());
+    }
+}
@@ -1,17 +1,36 @@
 package com.ride_hailing.passenger.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.ride_hailing.passenger.config.PassengerColumnarHttpMessageConverter;
 import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerPageDTO;
+import com.ride_hailing.passenger.dto.PassengerSearchPageDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncPageDTO;
+import com.ride_hailing.passenger.exception.ErrorMessage;
 import com.ride_hailing.passenger.exception.NotFoundException;
+import com.ride_hailing.passenger.exception.NotFoundReporter;
+import com.ride_hailing.passenger.metrics.PassengerMetrics;
+import com.ride_hailing.passenger.service.PassengerBulkService;
 import com.ride_hailing.passenger.service.PassengerService;
+import com.ride_hailing.passenger.util.PassengerETags;
+import com.ride_hailing.passenger.util.PassengerIds;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,57 +38,224 @@ import java.util.stream.Collectors;
 @Log4j2
 @RestController
 @RequestMapping("/api/passenger")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class PassengerController {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    private static final List<MediaType> LIST_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType(APPLICATION_SMILE_VALUE), PassengerColumnarHttpMessageConverter.MEDIA_TYPE);
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int STREAM_FLUSH_INTERVAL = 1000;
+
     private final PassengerService passengerService;
+    private final PassengerBulkService passengerBulkService;
+    private final ObjectMapper objectMapper;
+    private final PassengerMetrics passengerMetrics;
+    private final NotFoundReporter notFoundReporter;
 
+    /**
+     * Conditional requests (If-None-Match / If-Modified-Since) are answered with 304 by Spring
+     * from the ETag and Last-Modified set here, before the body is serialized.
+     */
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<PassengerDTO> getPassengerById(@PathVariable("id") Integer passengerId) {
-        PassengerDTO passengerDTO = passengerService.getPassengerById(passengerId)
-                .orElseThrow(() -> new NotFoundException("Passenger Id With " + passengerId + " not found"));
+    public ResponseEntity<?> getPassengerById(@PathVariable("id") Integer passengerId) {
+        Optional<PassengerDTO> passenger = passengerService.getPassengerById(passengerId);
+        if (passenger.isEmpty()) {
+            // Dispatch probes missing ids constantly, so this 404 is answered without an exception
+            return notFound("Passenger Id With " + passengerId + " not found");
+        }
+        PassengerDTO passengerDTO = passenger.get();
+        return withValidators(ResponseEntity.ok(), PassengerETags.of(passengerDTO), passengerDTO.updatedAt())
+                .body(passengerDTO);
+    }
+
+    @GetMapping(value = "/by-email", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PassengerDTO> getPassengerByEmail(@RequestParam("email") String email) {
+        PassengerDTO passengerDTO = passengerService.getPassengerByEmail(email)
+                .orElseThrow(() -> new NotFoundException("Passenger with email " + email + " not found"));
         return ResponseEntity.ok(passengerDTO);
     }
 
-    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE, PassengerColumnarHttpMessageConverter.MEDIA_TYPE_VALUE})
     public ResponseEntity<List<PassengerDTO>> getPassengerByIds(
-            @RequestParam(value = "id", required = false) List<Integer> passengerIds) {
-        List<PassengerDTO> passengerDTOList = passengerService.getPassengerByIds(passengerIds);
-        List<Integer> returnedIds = passengerDTOList
-                .stream()
-                .map(PassengerDTO::passengerId)
-                .toList();
+            @RequestParam(value = "id", required = false) List<Integer> passengerIds,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return lookupPassengers(passengerIds == null ? List.of() : passengerIds, accept);
+    }
 
-        List<Integer> missingIds = passengerIds.stream()
-                .filter(passengerId -> !returnedIds.contains(passengerId))
-                .toList();
+    @PostMapping(value = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE, PassengerColumnarHttpMessageConverter.MEDIA_TYPE_VALUE})
+    public ResponseEntity<List<PassengerDTO>> lookupPassengerByIds(
+            @RequestBody List<Integer> passengerIds,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return lookupPassengers(passengerIds, accept);
+    }
+
+    // The ETag names the negotiated representation, so a 304 is never answered across encodings
+    private ResponseEntity<List<PassengerDTO>> lookupPassengers(List<Integer> passengerIds, String accept) {
+        List<PassengerDTO> passengerDTOList = passengerService.getPassengerByIds(passengerIds);
+        List<Integer> missingIds = PassengerIds.missing(passengerIds, passengerDTOList);
+        passengerMetrics.recordLookup(passengerIds.size(), missingIds.size());
 
         HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
         if (!missingIds.isEmpty()) {
             headers.add("X-MISSING-SET", missingIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
         }
         log.info("X-MISSING-SET {}", missingIds);
-        return ResponseEntity.ok().headers(headers).body(passengerDTOList);
+        return withValidators(ResponseEntity.ok().headers(headers),
+                PassengerETags.of(passengerDTOList, PassengerETags.negotiated(accept, LIST_MEDIA_TYPES)),
+                PassengerETags.lastModified(passengerDTOList))
+                .body(passengerDTOList);
+    }
+
+    // Same body as the NotFoundException handler
+    private ResponseEntity<ErrorMessage> notFound(String message) {
+        notFoundReporter.report(message);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorMessage.builder().message(message).build());
     }
 
-    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder,
+                                                             String eTag, Instant lastModified) {
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE, PassengerColumnarHttpMessageConverter.MEDIA_TYPE_VALUE})
     public ResponseEntity<List<PassengerDTO>> getAllPassengers() {
         List<PassengerDTO> passengerDTOList = passengerService.getAllPassengers();
         return ResponseEntity.ok().body(passengerDTOList);
     }
 
+    @GetMapping(value = "/all", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllPassengers() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                int[] written = {0};
+                passengerService.streamAllPassengers(passengerDTO -> {
+                    try {
+                        writer.write(passengerDTO);
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PassengerPageDTO> getPassengerPage(
+            @RequestParam(value = "after", defaultValue = "0") Integer afterPassengerId,
+            @RequestParam(value = "limit", defaultValue = "100") Integer limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(passengerService.getPassengerPage(afterPassengerId, pageSize));
+    }
+
+    /**
+     * Case-insensitive prefix search on name and email for support tooling. Pages are addressed by
+     * offset, up to {@value #MAX_SEARCH_RESULTS} results deep; past that the query has to be narrowed.
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PassengerSearchPageDTO> searchPassengers(
+            @RequestParam("q") String query,
+            @RequestParam(value = "offset", defaultValue = "0") Integer offset,
+            @RequestParam(value = "limit", defaultValue = "20") Integer limit) {
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageOffset = Math.max(0, Math.min(offset, MAX_SEARCH_RESULTS - 1));
+        int pageSize = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS - pageOffset));
+        PassengerSearchPageDTO page = passengerService.searchPassengers(query, pageOffset, pageSize);
+        if (page.nextOffset() != null && page.nextOffset() >= MAX_SEARCH_RESULTS) {
+            page = PassengerSearchPageDTO.builder().passengers(page.passengers()).build();
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Incremental sync: rows created, updated or deleted after the {@code since} token, oldest first.
+     * Clients keep {@code nextSince} (or the last {@code changeSeq} streamed) and pass it on the next call.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PassengerSyncPageDTO> getChangesSince(
+            @RequestParam(value = "since", defaultValue = "0") Long since,
+            @RequestParam(value = "limit", defaultValue = "100") Integer limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(passengerService.getChangesSince(since, pageSize));
+    }
+
+    @GetMapping(value = "/changes", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamChangesSince(
+            @RequestParam(value = "since", defaultValue = "0") Long since) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                int[] written = {0};
+                passengerService.streamChangesSince(since, change -> {
+                    try {
+                        writer.write(change);
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
     @PostMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<PassengerDTO> createPassenger(@Valid @RequestBody PassengerDTO passengerDTO) {
         return passengerService.createPassenger(passengerDTO)
-                .map(passenger -> ResponseEntity.status(HttpStatus.CREATED).body(passenger))
+                .map(passenger -> withValidators(ResponseEntity.status(HttpStatus.CREATED),
+                        PassengerETags.of(passenger), passenger.updatedAt()).body(passenger))
                 .orElse(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
     }
 
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE},
+            produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkCreatePassengers(InputStream requestBody) {
+        StreamingResponseBody body = outputStream -> {
+            try (MappingIterator<PassengerDTO> passengers = objectMapper.readerFor(PassengerDTO.class).readValues(requestBody);
+                 SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                passengerBulkService.bulkCreatePassengers(passengers, result -> {
+                    try {
+                        writer.write(result);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
     @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<PassengerDTO> updatePassenger(
             @PathVariable("id") Integer passengerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody PassengerDTO passengerDTO) {
-        return passengerService.updatePassenger(passengerId, passengerDTO)
-                .map(passenger -> ResponseEntity.status(HttpStatus.OK).body(passenger))
+        PassengerDTO update = ifMatch == null
+                ? passengerDTO
+                : passengerDTO.toBuilder().version(PassengerETags.matchedVersion(passengerId, ifMatch)).build();
+        return passengerService.updatePassenger(passengerId, update)
+                .map(passenger -> withValidators(ResponseEntity.status(HttpStatus.OK),
+                        PassengerETags.of(passenger), passenger.updatedAt()).body(passenger))
                 .orElseThrow(() -> new NotFoundException("Passenger Id With " + passengerId + " not found"));
     }
 
@@ -78,6 +264,7 @@ public class PassengerController {
         PassengerDTO passengerDTO = passengerService.getPassengerById(passengerId)
                 .orElseThrow(() -> new NotFoundException("Passenger Id With " + passengerId + " not found"));
 
+        passengerService.deletePassenger(passengerDTO.passengerId());
         return ResponseEntity.status(HttpStatus.OK).body("Passenger with ID " + passengerId + " successfully deleted.");
     }
 }
@@ -0,0 +1,198 @@
+package com.ride_hailing.passenger.controller;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerPageDTO;
+import com.ride_hailing.passenger.exception.ErrorMessage;
+import com.ride_hailing.passenger.exception.NotFoundException;
+import com.ride_hailing.passenger.exception.NotFoundReporter;
+import com.ride_hailing.passenger.metrics.PassengerMetrics;
+import com.ride_hailing.passenger.repository.PassengerReactiveRepository;
+import com.ride_hailing.passenger.service.PassengerService;
+import com.ride_hailing.passenger.util.PassengerETags;
+import com.ride_hailing.passenger.util.PassengerIds;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import static com.ride_hailing.passenger.controller.PassengerController.APPLICATION_NDJSON_VALUE;
+import static com.ride_hailing.passenger.controller.PassengerController.APPLICATION_SMILE_VALUE;
+
+/**
+ * {@code /api/passenger} on WebFlux, replacing {@link PassengerController} when the application runs
+ * with the reactive profile. Responses carry the same {@link PassengerDTO} bodies, validators and
+ * X-MISSING-SET header. Reads go through R2DBC without holding a thread per request; the NDJSON reads
+ * stream rows as the client consumes them. Writes reuse the blocking {@link PassengerService} on the
+ * bounded elastic scheduler, so outbox events and cache invalidation stay in one place.
+ * Bulk create, search, incremental sync and the CBOR and columnar encodings are served by the servlet stack only.
+ */
+@RestController
+@RequestMapping("/api/passenger")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class PassengerReactiveController {
+    private static final List<MediaType> LIST_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.parseMediaType(APPLICATION_SMILE_VALUE));
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final PassengerReactiveRepository passengerReactiveRepository;
+    private final PassengerService passengerService;
+    private final PassengerMetrics passengerMetrics;
+    private final NotFoundReporter notFoundReporter;
+    @Value("${passenger.lookup.chunk-size:500}")
+    private final int lookupChunkSize;
+    @Value("${passenger.lookup.executor.pool-size:4}")
+    private final int lookupConcurrency;
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> getPassengerById(@PathVariable("id") Integer passengerId) {
+        return passengerReactiveRepository.findDTOById(passengerId)
+                .<ResponseEntity<?>>map(passengerDTO -> withValidators(ResponseEntity.ok(),
+                        PassengerETags.of(passengerDTO), passengerDTO.updatedAt()).body(passengerDTO))
+                .switchIfEmpty(Mono.fromSupplier(() -> notFound("Passenger Id With " + passengerId + " not found")));
+    }
+
+    @GetMapping(value = "/by-email", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<PassengerDTO>> getPassengerByEmail(@RequestParam("email") String email) {
+        return passengerReactiveRepository.findDTOByEmail(email)
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Passenger with email " + email + " not found")));
+    }
+
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<List<PassengerDTO>>> getPassengerByIds(
+            @RequestParam(value = "id", required = false) List<Integer> passengerIds,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return lookupPassengers(passengerIds == null ? List.of() : passengerIds, accept);
+    }
+
+    @PostMapping(value = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<List<PassengerDTO>>> lookupPassengerByIds(
+            @RequestBody List<Integer> passengerIds,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return lookupPassengers(passengerIds, accept);
+    }
+
+    /**
+     * Found passengers as they are read, without the X-MISSING-SET header, which would need the whole result first.
+     */
+    @PostMapping(value = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+    public Flux<PassengerDTO> streamPassengersByIds(@RequestBody List<Integer> passengerIds) {
+        return findPassengers(passengerIds);
+    }
+
+    // The ETag names the negotiated representation, so a 304 is never answered across encodings
+    private Mono<ResponseEntity<List<PassengerDTO>>> lookupPassengers(List<Integer> passengerIds, String accept) {
+        return findPassengers(passengerIds)
+                .collectList()
+                .map(passengerDTOList -> {
+                    List<Integer> missingIds = PassengerIds.missing(passengerIds, passengerDTOList);
+                    passengerMetrics.recordLookup(passengerIds.size(), missingIds.size());
+
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                    if (!missingIds.isEmpty()) {
+                        headers.add("X-MISSING-SET", missingIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+                    }
+                    return withValidators(ResponseEntity.ok().headers(headers),
+                            PassengerETags.of(passengerDTOList, PassengerETags.negotiated(accept, LIST_MEDIA_TYPES)),
+                            PassengerETags.lastModified(passengerDTOList))
+                            .body(passengerDTOList);
+                });
+    }
+
+    // Chunks are queried concurrently, like the servlet fan-out, and emitted in chunk order
+    private Flux<PassengerDTO> findPassengers(List<Integer> passengerIds) {
+        return Flux.fromIterable(PassengerIds.chunk(PassengerIds.distinct(passengerIds), lookupChunkSize))
+                .flatMapSequential(passengerReactiveRepository::findAllDTOsById, lookupConcurrency);
+    }
+
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public Flux<PassengerDTO> getAllPassengers() {
+        return passengerReactiveRepository.findAllDTOs();
+    }
+
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<PassengerPageDTO>> getPassengerPage(
+            @RequestParam(value = "after", defaultValue = "0") Integer afterPassengerId,
+            @RequestParam(value = "limit", defaultValue = "100") Integer limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return passengerReactiveRepository.findPage(afterPassengerId, pageSize)
+                .collectList()
+                .map(passengers -> ResponseEntity.ok(PassengerPageDTO.builder()
+                        .passengers(passengers)
+                        .nextAfter(passengers.size() < pageSize ? null : passengers.get(passengers.size() - 1).passengerId())
+                        .build()));
+    }
+
+    @PostMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<PassengerDTO>> createPassenger(@Valid @RequestBody PassengerDTO passengerDTO) {
+        return blocking(() -> passengerService.createPassenger(passengerDTO)
+                .map(passenger -> withValidators(ResponseEntity.status(HttpStatus.CREATED),
+                        PassengerETags.of(passenger), passenger.updatedAt()).body(passenger))
+                .orElse(ResponseEntity.status(HttpStatus.BAD_REQUEST).build()));
+    }
+
+    @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<PassengerDTO>> updatePassenger(
+            @PathVariable("id") Integer passengerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody PassengerDTO passengerDTO) {
+        return blocking(() -> {
+            PassengerDTO update = ifMatch == null
+                    ? passengerDTO
+                    : passengerDTO.toBuilder().version(PassengerETags.matchedVersion(passengerId, ifMatch)).build();
+            return passengerService.updatePassenger(passengerId, update)
+                    .map(passenger -> withValidators(ResponseEntity.status(HttpStatus.OK),
+                            PassengerETags.of(passenger), passenger.updatedAt()).body(passenger))
+                    .orElseThrow(() -> new NotFoundException("Passenger Id With " + passengerId + " not found"));
+        });
+    }
+
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> deletePassenger(@PathVariable("id") Integer passengerId) {
+        return blocking(() -> {
+            PassengerDTO passengerDTO = passengerService.getPassengerById(passengerId)
+                    .orElseThrow(() -> new NotFoundException("Passenger Id With " + passengerId + " not found"));
+
+            passengerService.deletePassenger(passengerDTO.passengerId());
+            return ResponseEntity.status(HttpStatus.OK).body("Passenger with ID " + passengerId + " successfully deleted.");
+        });
+    }
+
+    // JPA and the JDBC pool block, so they must not run on an event loop thread
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Same body as the NotFoundException handler
+    private ResponseEntity<ErrorMessage> notFound(String message) {
+        notFoundReporter.report(message);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorMessage.builder().message(message).build());
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder,
+                                                             String eTag, Instant lastModified) {
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+}
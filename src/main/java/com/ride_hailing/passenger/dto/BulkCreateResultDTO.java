@@ -0,0 +1,15 @@
+package com.ride_hailing.passenger.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+
+import java.util.Map;
+
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkCreateResultDTO(
+        long index,
+        BulkCreateStatus status,
+        Integer passengerId,
+        Map<String, String> errors
+) {}
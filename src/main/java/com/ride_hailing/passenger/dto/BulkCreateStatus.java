@@ -0,0 +1,8 @@
+package com.ride_hailing.passenger.dto;
+
+public enum BulkCreateStatus {
+    CREATED,
+    INVALID,
+    CONFLICT,
+    FAILED
+}
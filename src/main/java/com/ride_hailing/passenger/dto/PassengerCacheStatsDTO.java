@@ -0,0 +1,12 @@
+package com.ride_hailing.passenger.dto;
+
+import lombok.Builder;
+
+@Builder
+public record PassengerCacheStatsDTO(
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount,
+        long estimatedSize
+) {}
@@ -0,0 +1,21 @@
+package com.ride_hailing.passenger.dto;
+
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * One passenger mutation as published to downstream consumers. {@code eventId} increases in the order
+ * changes were written and {@code version} orders changes of the same passenger.
+ * For DELETED events the name and email are the last known values.
+ */
+@Builder(toBuilder = true)
+public record PassengerChangeEventDTO(
+        long eventId,
+        PassengerChangeType type,
+        Integer passengerId,
+        Long version,
+        String name,
+        String email,
+        Instant occurredAt
+) {}
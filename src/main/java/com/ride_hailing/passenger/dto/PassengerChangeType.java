@@ -0,0 +1,7 @@
+package com.ride_hailing.passenger.dto;
+
+public enum PassengerChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -1,11 +1,19 @@
 package com.ride_hailing.passenger.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Builder;
 
-@Builder
+import java.time.Instant;
+
+/**
+ * {@code version} and {@code updatedAt} travel in the ETag and Last-Modified headers, not in the body.
+ */
+@Builder(toBuilder = true)
 public record PassengerDTO(
         Integer passengerId,
         @NotBlank(message = "Name is required") String name,
-        @NotBlank(message = "Email is required") String email
+        @NotBlank(message = "Email is required") String email,
+        @JsonIgnore Long version,
+        @JsonIgnore Instant updatedAt
 ) {}
@@ -0,0 +1,11 @@
+package com.ride_hailing.passenger.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record PassengerSearchPageDTO(
+        List<PassengerDTO> passengers,
+        Integer nextOffset
+) {}
@@ -0,0 +1,22 @@
+package com.ride_hailing.passenger.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * A passenger row or tombstone as returned by incremental sync. {@code changeSeq} is the token
+ * to resume from; deleted passengers carry only their id and the time of deletion.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PassengerSyncDTO(
+        long changeSeq,
+        Integer passengerId,
+        boolean deleted,
+        String name,
+        String email,
+        Long version,
+        Instant updatedAt
+) {}
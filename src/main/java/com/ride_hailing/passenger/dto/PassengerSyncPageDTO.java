@@ -0,0 +1,12 @@
+package com.ride_hailing.passenger.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record PassengerSyncPageDTO(
+        List<PassengerSyncDTO> changes,
+        long nextSince,
+        boolean hasMore
+) {}
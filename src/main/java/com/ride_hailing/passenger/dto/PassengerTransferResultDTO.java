@@ -0,0 +1,13 @@
+package com.ride_hailing.passenger.dto;
+
+import lombok.Builder;
+
+@Builder
+public record PassengerTransferResultDTO(
+        long chunks,
+        long rows,
+        long rejectedRows,
+        long bytes,
+        long resumedAtOffset,
+        long elapsedMillis
+) {}
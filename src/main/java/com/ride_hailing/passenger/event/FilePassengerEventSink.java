@@ -0,0 +1,46 @@
+package com.ride_hailing.passenger.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ride_hailing.passenger.dto.PassengerChangeEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a local NDJSON file, one event per line, flushed once per batch.
+ */
+@Component
+@ConditionalOnProperty(name = "passenger.events.sink", havingValue = "file")
+public class FilePassengerEventSink implements PassengerEventSink {
+    private final Path file;
+    private final ObjectWriter writer;
+
+    public FilePassengerEventSink(@Value("${passenger.events.file:passenger-events.ndjson}") Path file,
+                                  ObjectMapper objectMapper) {
+        this.file = file;
+        this.writer = objectMapper.writerFor(PassengerChangeEventDTO.class);
+    }
+
+    @Override
+    public synchronized void publish(List<PassengerChangeEventDTO> events) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (PassengerChangeEventDTO event : events) {
+                out.write(writer.writeValueAsString(event));
+                out.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.ride_hailing.passenger.event;
+
+import com.ride_hailing.passenger.dto.PassengerChangeEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent events in memory, dropping the oldest beyond the capacity: nothing reads them
+ * outside tests, so it is only for tests and the bench profile, never the default.
+ */
+@Component
+@ConditionalOnProperty(name = "passenger.events.sink", havingValue = "memory")
+public class InMemoryPassengerEventSink implements PassengerEventSink {
+    private final int capacity;
+    private final Deque<PassengerChangeEventDTO> events = new ArrayDeque<>();
+
+    public InMemoryPassengerEventSink(@Value("${passenger.events.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<PassengerChangeEventDTO> batch) {
+        for (PassengerChangeEventDTO event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<PassengerChangeEventDTO> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,13 @@
+package com.ride_hailing.passenger.event;
+
+import com.ride_hailing.passenger.dto.PassengerChangeEventDTO;
+
+import java.util.List;
+
+/**
+ * Destination of the passenger change stream. Events arrive in outbox order; a sink that throws
+ * leaves the batch in the outbox and receives it again on the next relay run (at-least-once).
+ */
+public interface PassengerEventSink {
+    void publish(List<PassengerChangeEventDTO> events) throws Exception;
+}
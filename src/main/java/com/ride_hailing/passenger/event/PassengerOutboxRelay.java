@@ -0,0 +1,80 @@
+package com.ride_hailing.passenger.event;
+
+import com.ride_hailing.passenger.dto.PassengerChangeEventDTO;
+import com.ride_hailing.passenger.repository.PassengerOutboxRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Drains PASSENGER_OUTBOX in event order: reads a batch, hands it to the sink and deletes it only
+ * once the sink accepted it. Every node runs the relay, but only the one holding the relay lease
+ * publishes, so the published order stays total; the others skip their run. The lease is taken or
+ * renewed with the batch read in one short transaction, the sink is called outside any transaction
+ * and the published rows are deleted in another, so no connection waits on the sink. A relay that
+ * stalls past its lease may see its last batch published again by the next holder (at-least-once).
+ * Runs only when {@code passenger.events.sink} names a sink; until then events wait in the outbox.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "passenger.events.sink")
+public class PassengerOutboxRelay {
+    private final PassengerOutboxRepository passengerOutboxRepository;
+    private final PassengerEventSink passengerEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long leaseMillis;
+    private final String relayId = UUID.randomUUID().toString();
+
+    public PassengerOutboxRelay(PassengerOutboxRepository passengerOutboxRepository,
+                                PassengerEventSink passengerEventSink,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${passenger.events.relay.batch-size:500}") int batchSize,
+                                @Value("${passenger.events.relay.lease-ms:30000}") long leaseMillis) {
+        this.passengerOutboxRepository = passengerOutboxRepository;
+        this.passengerEventSink = passengerEventSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseMillis = leaseMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${passenger.events.relay.interval-ms:1000}")
+    public void relay() {
+        try {
+            while (relayBatch() == batchSize) {
+                // keep draining while the outbox is behind
+            }
+        } catch (Exception e) {
+            log.warn("Passenger event relay failed, will retry", e);
+        }
+    }
+
+    /**
+     * Publishes at most one batch and returns how many events it contained, 0 when another node holds the lease.
+     */
+    public int relayBatch() {
+        List<PassengerChangeEventDTO> events = transactionTemplate.execute(status ->
+                passengerOutboxRepository.claimRelay(relayId, leaseMillis) ? passengerOutboxRepository.findBatch(batchSize) : null);
+        if (events == null) {
+            log.debug("Passenger event relay leased by another node, skipping");
+            return 0;
+        }
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            passengerEventSink.publish(events);
+        } catch (Exception e) {
+            throw new IllegalStateException("Sink rejected " + events.size() + " passenger events", e);
+        }
+        transactionTemplate.executeWithoutResult(status -> passengerOutboxRepository.delete(events));
+        return events.size();
+    }
+}
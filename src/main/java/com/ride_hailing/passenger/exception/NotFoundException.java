@@ -1,7 +1,11 @@
 package com.ride_hailing.passenger.exception;
 
+/**
+ * Stackless: a missing passenger is an expected outcome answered with 404, and the handler never
+ * logs the trace, so filling it in would only cost time and allocation on every miss.
+ */
 public class NotFoundException extends RuntimeException {
-    public NotFoundException(String message){
-        super(message);
+    public NotFoundException(String message) {
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.ride_hailing.passenger.exception;
+
+import com.ride_hailing.passenger.metrics.PassengerMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts 404s and logs them as one aggregated line per {@code passenger.not-found.log-interval-seconds}
+ * (the count since the last line and the latest message) instead of one line per miss. The summary is
+ * written by the first miss after the interval, so a quiet period simply produces no line.
+ */
+@Log4j2
+@Component
+public class NotFoundReporter {
+    private final PassengerMetrics passengerMetrics;
+    private final long intervalNanos;
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong nextLogAt;
+    private final AtomicReference<String> lastMessage = new AtomicReference<>();
+
+    public NotFoundReporter(PassengerMetrics passengerMetrics,
+                            @Value("${passenger.not-found.log-interval-seconds:60}") long intervalSeconds) {
+        this.passengerMetrics = passengerMetrics;
+        this.intervalNanos = Duration.ofSeconds(intervalSeconds).toNanos();
+        this.nextLogAt = new AtomicLong(System.nanoTime());
+    }
+
+    public void report(String message) {
+        passengerMetrics.recordNotFound();
+        misses.increment();
+        lastMessage.lazySet(message);
+
+        long now = System.nanoTime();
+        long logAt = nextLogAt.get();
+        if (now - logAt >= 0 && nextLogAt.compareAndSet(logAt, now + intervalNanos)) {
+            log.info("{} not found responses since the last report, latest: {}", misses.sumThenReset(), lastMessage.get());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.ride_hailing.passenger.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ride_hailing.passenger.exception;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link RestResponseEntityExceptionHandler}, with the same statuses and bodies.
+ */
+@Log4j2
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveExceptionHandler {
+    private final NotFoundReporter notFoundReporter;
+
+    private ResponseEntity<Object> getErrorMessageRequest(HttpStatus httpStatus, Exception e) {
+        return new ResponseEntity<>(ErrorMessage.builder().message(e.getMessage()).build(), httpStatus);
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<Object> handleNotFoundException(NotFoundException e) {
+        notFoundReporter.report(e.getMessage());
+        return getErrorMessageRequest(HttpStatus.NOT_FOUND, e);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Object> handleConflictException(ConflictException e) {
+        log.warn("Conflict: {}", e.getMessage());
+        return getErrorMessageRequest(HttpStatus.CONFLICT, e);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException e) {
+        log.warn("Precondition failed: {}", e.getMessage());
+        return getErrorMessageRequest(HttpStatus.PRECONDITION_FAILED, e);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleWebExchangeBindException(WebExchangeBindException e) {
+        Map<String, String> errors = new HashMap<>();
+        e.getBindingResult().getFieldErrors().forEach(error -> {
+            log.error("Validation error for field '{}': {}", error.getField(), error.getDefaultMessage());
+            errors.put(error.getField(), error.getDefaultMessage());
+        });
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+}
@@ -1,5 +1,7 @@
 package com.ride_hailing.passenger.exception;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -14,17 +16,33 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
 public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
+    private final NotFoundReporter notFoundReporter;
+
     private ResponseEntity<Object> getErrorMessageRequest(HttpStatus httpStatus, Exception e) {
         return new ResponseEntity<>(ErrorMessage.builder().message(e.getMessage()).build(), httpStatus);
     }
 
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<Object> handleNotFoundException(NotFoundException e) {
-        logger.error("Not found: {}", e);
+        notFoundReporter.report(e.getMessage());
         return getErrorMessageRequest(HttpStatus.NOT_FOUND, e);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Object> handleConflictException(ConflictException e) {
+        logger.warn("Conflict: " + e.getMessage());
+        return getErrorMessageRequest(HttpStatus.CONFLICT, e);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException e) {
+        logger.warn("Precondition failed: " + e.getMessage());
+        return getErrorMessageRequest(HttpStatus.PRECONDITION_FAILED, e);
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
                                                                   HttpHeaders headers,
@@ -20,6 +20,8 @@ public class PassengerMapper implements Mapper<Passenger, PassengerDTO> {
                 .passengerId(passenger.getPassengerId())
                 .name(passenger.getName())
                 .email(passenger.getEmail())
+                .version(passenger.getVersion())
+                .updatedAt(passenger.getUpdatedAt())
                 .build();
     }
 }
@@ -0,0 +1,38 @@
+package com.ride_hailing.passenger.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters that are not covered by the request, method and pool timers.
+ */
+@Component
+public class PassengerMetrics {
+    private final Counter lookupRequestedIds;
+    private final Counter lookupMissingIds;
+    private final Counter notFound;
+
+    public PassengerMetrics(MeterRegistry meterRegistry) {
+        this.lookupRequestedIds = Counter.builder("passenger.lookup.ids")
+                .description("Passenger ids requested through the multi-get endpoints")
+                .register(meterRegistry);
+        this.lookupMissingIds = Counter.builder("passenger.lookup.missing")
+                .description("Requested passenger ids reported in X-MISSING-SET")
+                .register(meterRegistry);
+        this.notFound = Counter.builder("passenger.not.found")
+                .description("Requests answered with 404 because a passenger does not exist")
+                .register(meterRegistry);
+    }
+
+    public void recordLookup(int requestedIds, int missingIds) {
+        lookupRequestedIds.increment(requestedIds);
+        if (missingIds > 0) {
+            lookupMissingIds.increment(missingIds);
+        }
+    }
+
+    public void recordNotFound() {
+        notFound.increment();
+    }
+}
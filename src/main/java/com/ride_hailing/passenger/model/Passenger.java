@@ -2,9 +2,16 @@ package com.ride_hailing.passenger.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.generator.EventType;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "Passenger")
+@SQLRestriction("DELETED = FALSE")
 @Setter
 @Getter
 @NoArgsConstructor
@@ -12,8 +19,13 @@ import lombok.*;
 @Builder
 @EqualsAndHashCode
 public class Passenger {
+    public static final String ID_SEQUENCE = "PASSENGER_SEQ";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String EMAIL_UNIQUE_INDEX = "UX_PASSENGER_EMAIL_NORMALIZED";
+    public static final String CHANGE_SEQUENCE = "PASSENGER_CHANGE_SEQ";
 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "passengerIdGenerator")
+    @SequenceGenerator(name = "passengerIdGenerator", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     @Id
     @Column(name = "PASSENGER_ID")
     private Integer passengerId;
@@ -23,4 +35,21 @@ public class Passenger {
 
     @Column(name = "EMAIL")
     private String email;
+
+    @Version
+    @Column(name = "VERSION")
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "UPDATED_AT")
+    private Instant updatedAt;
+
+    // Drawn again on every insert and update so incremental sync can ask for rows changed after a token
+    @Generated(event = {EventType.INSERT, EventType.UPDATE}, sql = "NEXT VALUE FOR " + CHANGE_SEQUENCE)
+    @Column(name = "CHANGE_SEQ")
+    private Long changeSeq;
+
+    // Soft-delete flag; flagged rows are hidden from every read and hard-deleted later by the purge job
+    @Column(name = "DELETED")
+    private boolean deleted;
 }
@@ -0,0 +1,277 @@
+package com.ride_hailing.passenger.repository;
+
+import com.ride_hailing.passenger.dto.PassengerChangeType;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncDTO;
+import com.ride_hailing.passenger.model.Passenger;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to the PASSENGER table for paths that must not materialise
+ * the whole result set (or the persistence context) in memory. Reads map rows
+ * straight into {@link PassengerDTO}, without managed entities or the mapper.
+ */
+@Repository
+@Timed("passenger.jdbc")
+public class PassengerJdbcRepository {
+    private static final String SELECT_PASSENGER = "SELECT PASSENGER_ID, NAME, EMAIL, VERSION, UPDATED_AT FROM PASSENGER";
+    private static final String SELECT_BY_ID = SELECT_PASSENGER + " WHERE PASSENGER_ID = ? AND DELETED = FALSE";
+    // One statement shape for any number of ids, so it is parsed and cached once
+    private static final String SELECT_BY_IDS = SELECT_PASSENGER + " WHERE PASSENGER_ID = ANY(?) AND DELETED = FALSE";
+    private static final String SELECT_ALL_ORDERED = SELECT_PASSENGER + " WHERE DELETED = FALSE ORDER BY PASSENGER_ID";
+    private static final String SELECT_AFTER_ORDERED = SELECT_PASSENGER + " WHERE PASSENGER_ID > ? AND DELETED = FALSE "
+            + "ORDER BY PASSENGER_ID";
+    private static final String SELECT_AFTER_ORDERED_LIMITED = SELECT_AFTER_ORDERED + " LIMIT ?";
+    // Prefix matches as index range scans on the lower-cased columns: [prefix, prefix + U+FFFF)
+    private static final String SEARCH_NAME_PREFIX = SELECT_PASSENGER + " WHERE NAME_NORMALIZED >= ? AND NAME_NORMALIZED < ? "
+            + "ORDER BY NAME_NORMALIZED, PASSENGER_ID LIMIT ?";
+    private static final String SEARCH_EMAIL_PREFIX = SELECT_PASSENGER + " WHERE EMAIL_NORMALIZED >= ? AND EMAIL_NORMALIZED < ? "
+            + "ORDER BY EMAIL_NORMALIZED LIMIT ?";
+    private static final String SELECT_TAKEN_EMAILS = "SELECT EMAIL_NORMALIZED FROM PASSENGER WHERE EMAIL_NORMALIZED = ANY(?)";
+    private static final String NEXT_ID_BLOCK = "SELECT NEXT VALUE FOR " + Passenger.ID_SEQUENCE;
+    private static final String INSERT_PASSENGER = "INSERT INTO PASSENGER (PASSENGER_ID, NAME, EMAIL) VALUES (?, ?, ?)";
+    // Live rows, soft-deleted rows and purged tombstones share PASSENGER_CHANGE_SEQ, so one ordered merge is the change log
+    private static final String SELECT_PASSENGER_CHANGES = "SELECT CHANGE_SEQ, PASSENGER_ID, DELETED, "
+            + "CASE WHEN DELETED THEN NULL ELSE NAME END, CASE WHEN DELETED THEN NULL ELSE EMAIL END, "
+            + "CASE WHEN DELETED THEN NULL ELSE VERSION END, UPDATED_AT "
+            + "FROM PASSENGER WHERE CHANGE_SEQ > ? AND CHANGE_SEQ < ?";
+    private static final String SELECT_TOMBSTONE_CHANGES = "SELECT CHANGE_SEQ, PASSENGER_ID, TRUE, NULL, NULL, NULL, DELETED_AT "
+            + "FROM PASSENGER_TOMBSTONE WHERE CHANGE_SEQ > ? AND CHANGE_SEQ < ?";
+    private static final String SELECT_CHANGES_SINCE = SELECT_PASSENGER_CHANGES + " UNION ALL " + SELECT_TOMBSTONE_CHANGES
+            + " ORDER BY 1";
+    // Each side stops after LIMIT rows of its CHANGE_SEQ index, so a page costs its size and not the changes behind it
+    private static final String SELECT_CHANGES_SINCE_LIMITED = "SELECT * FROM ("
+            + "(" + SELECT_PASSENGER_CHANGES + " ORDER BY CHANGE_SEQ LIMIT ?) UNION ALL "
+            + "(" + SELECT_TOMBSTONE_CHANGES + " ORDER BY CHANGE_SEQ LIMIT ?)) ORDER BY 1 LIMIT ?";
+    private static final String SELECT_DELETED_IDS = "SELECT PASSENGER_ID FROM PASSENGER WHERE DELETED = TRUE "
+            + "ORDER BY PASSENGER_ID LIMIT ?";
+    private static final String INSERT_TOMBSTONES = "INSERT INTO PASSENGER_TOMBSTONE (PASSENGER_ID, CHANGE_SEQ, DELETED_AT) "
+            + "SELECT PASSENGER_ID, CHANGE_SEQ, UPDATED_AT FROM PASSENGER WHERE PASSENGER_ID = ANY(?) AND DELETED = TRUE";
+    private static final String PURGE_DELETED = "DELETE FROM PASSENGER WHERE PASSENGER_ID = ANY(?) AND DELETED = TRUE";
+    private static final String OPEN_CHANGE_TICKET = "SELECT TICKET FROM FINAL TABLE "
+            + "(INSERT INTO PASSENGER_CHANGE_TICKET (TICKET) VALUES (NEXT VALUE FOR PASSENGER_CHANGE_SEQ))";
+    private static final String CLOSE_CHANGE_TICKET = "DELETE FROM PASSENGER_CHANGE_TICKET WHERE TICKET = ?";
+    // The next value the sequence will hand out, counting draws of transactions that have not committed
+    private static final String SELECT_NEXT_CHANGE_SEQ = "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES "
+            + "WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND SEQUENCE_NAME = 'PASSENGER_CHANGE_SEQ'";
+    private static final String SELECT_OLDEST_CHANGE_TICKET = "SELECT MIN(TICKET) FROM PASSENGER_CHANGE_TICKET "
+            + "WHERE OPENED_AT > DATEADD(MILLISECOND, ?, CURRENT_TIMESTAMP)";
+    private static final String DELETE_EXPIRED_CHANGE_TICKETS = "DELETE FROM PASSENGER_CHANGE_TICKET "
+            + "WHERE OPENED_AT <= DATEADD(MILLISECOND, ?, CURRENT_TIMESTAMP)";
+
+    private static final RowMapper<PassengerDTO> PASSENGER_DTO_ROW_MAPPER = (rs, rowNum) -> PassengerDTO.builder()
+            .passengerId(rs.getInt(1))
+            .name(rs.getString(2))
+            .email(rs.getString(3))
+            .version(rs.getLong(4))
+            .updatedAt(rs.getObject(5, Instant.class))
+            .build();
+
+    private static final RowMapper<PassengerSyncDTO> PASSENGER_SYNC_ROW_MAPPER = (rs, rowNum) -> PassengerSyncDTO.builder()
+            .changeSeq(rs.getLong(1))
+            .passengerId(rs.getInt(2))
+            .deleted(rs.getBoolean(3))
+            .name(rs.getString(4))
+            .email(rs.getString(5))
+            .version(rs.getObject(6, Long.class))
+            .updatedAt(rs.getObject(7, Instant.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final PassengerOutboxRepository passengerOutboxRepository;
+    private final long changeTicketTimeoutMillis;
+
+    public PassengerJdbcRepository(JdbcTemplate jdbcTemplate,
+                                   PassengerOutboxRepository passengerOutboxRepository,
+                                   @Value("${passenger.jdbc.stream-fetch-size:500}") int streamFetchSize,
+                                   @Value("${passenger.changes.ticket-timeout-ms:60000}") long changeTicketTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passengerOutboxRepository = passengerOutboxRepository;
+        this.changeTicketTimeoutMillis = changeTicketTimeoutMillis;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(streamFetchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PassengerDTO> findDTOById(Integer passengerId) {
+        return jdbcTemplate.query(SELECT_BY_ID, PASSENGER_DTO_ROW_MAPPER, passengerId)
+                .stream()
+                .findFirst();
+    }
+
+    @Transactional(readOnly = true)
+    public List<PassengerDTO> findAllDTOsById(Collection<Integer> passengerIds) {
+        Integer[] ids = passengerIds.toArray(Integer[]::new);
+        return jdbcTemplate.query(SELECT_BY_IDS, ps -> ps.setObject(1, ids), PASSENGER_DTO_ROW_MAPPER);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PassengerDTO> findAllDTOs() {
+        return jdbcTemplate.query(SELECT_ALL_ORDERED, PASSENGER_DTO_ROW_MAPPER);
+    }
+
+    /**
+     * Walks every passenger in PASSENGER_ID order through a forward-only cursor,
+     * handing each row to the consumer as soon as it is fetched.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<PassengerDTO> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(PASSENGER_DTO_ROW_MAPPER.mapRow(rs, rs.getRow()));
+        streamingJdbcTemplate.query(SELECT_ALL_ORDERED, handler);
+    }
+
+    /**
+     * As {@link #streamAll}, starting after {@code afterPassengerId}, so an interrupted walk can continue where it stopped.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllAfter(int afterPassengerId, Consumer<PassengerDTO> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(PASSENGER_DTO_ROW_MAPPER.mapRow(rs, rs.getRow()));
+        streamingJdbcTemplate.query(SELECT_AFTER_ORDERED, handler, afterPassengerId);
+    }
+
+    /**
+     * Keyset page: up to {@code limit} live passengers after {@code afterPassengerId}, read through the primary key.
+     */
+    @Transactional(readOnly = true)
+    public List<PassengerDTO> findPageAfter(int afterPassengerId, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER_ORDERED_LIMITED, PASSENGER_DTO_ROW_MAPPER, afterPassengerId, limit);
+    }
+
+    /**
+     * Up to {@code limit} live passengers whose lower-cased name, or email, starts with {@code prefix}
+     * (already lower-cased), in name or email order. Reads at most {@code limit} index entries.
+     */
+    @Transactional(readOnly = true)
+    public List<PassengerDTO> findByNamePrefix(String prefix, int limit) {
+        return jdbcTemplate.query(SEARCH_NAME_PREFIX, PASSENGER_DTO_ROW_MAPPER, prefix, prefix + Character.MAX_VALUE, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PassengerDTO> findByEmailPrefix(String prefix, int limit) {
+        return jdbcTemplate.query(SEARCH_EMAIL_PREFIX, PASSENGER_DTO_ROW_MAPPER, prefix, prefix + Character.MAX_VALUE, limit);
+    }
+
+    /**
+     * The subset of {@code normalizedEmails} (already lower-cased) held by live passengers,
+     * read through the unique email index.
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findTakenEmails(Collection<String> normalizedEmails) {
+        String[] emails = normalizedEmails.toArray(String[]::new);
+        return new HashSet<>(jdbcTemplate.query(SELECT_TAKEN_EMAILS, ps -> ps.setObject(1, emails),
+                (rs, rowNum) -> rs.getString(1)));
+    }
+
+    /**
+     * Rows inserted, updated or deleted after {@code since}, in change order, up to the change
+     * watermark (see {@link #openChangeTicket()}). Both sides of the merge are read through their
+     * CHANGE_SEQ index, up to {@code limit} rows each, so the cost follows the page size.
+     */
+    @Transactional(readOnly = true)
+    public List<PassengerSyncDTO> findChangesSince(long since, int limit) {
+        long until = changeWatermark();
+        return jdbcTemplate.query(SELECT_CHANGES_SINCE_LIMITED, PASSENGER_SYNC_ROW_MAPPER,
+                since, until, limit, since, until, limit, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamChangesSince(long since, Consumer<PassengerSyncDTO> consumer) {
+        long until = changeWatermark();
+        RowCallbackHandler handler = rs -> consumer.accept(PASSENGER_SYNC_ROW_MAPPER.mapRow(rs, rs.getRow()));
+        streamingJdbcTemplate.query(SELECT_CHANGES_SINCE, handler, since, until, since, until);
+    }
+
+    /**
+     * Registers a write that is about to draw CHANGE_SEQ values; must commit before the write starts
+     * and be closed once the write has committed or rolled back. Tickets come from the same sequence,
+     * so every change a registered write makes is numbered above its ticket, and every change below
+     * the oldest open ticket is already settled: the change log is read only up to there, and a reader
+     * that has seen CHANGE_SEQ n never later finds a committed change below n.
+     */
+    @Transactional
+    public long openChangeTicket() {
+        return jdbcTemplate.queryForObject(OPEN_CHANGE_TICKET, Long.class);
+    }
+
+    @Transactional
+    public void closeChangeTicket(long ticket) {
+        jdbcTemplate.update(CLOSE_CHANGE_TICKET, ticket);
+    }
+
+    /**
+     * Removes tickets left open longer than {@code passenger.changes.ticket-timeout-ms}, e.g. by a node
+     * that stopped mid-write. Readers already ignore them; this only keeps the table small.
+     */
+    @Transactional
+    public int deleteExpiredChangeTickets() {
+        return jdbcTemplate.update(DELETE_EXPIRED_CHANGE_TICKETS, -changeTicketTimeoutMillis);
+    }
+
+    // The sequence is read before the tickets: a change drawn before that read belongs to a write whose ticket
+    // was already committed, so it is either settled or holds back the oldest open ticket
+    private long changeWatermark() {
+        long next = jdbcTemplate.queryForObject(SELECT_NEXT_CHANGE_SEQ, Long.class);
+        Long oldestTicket = jdbcTemplate.queryForObject(SELECT_OLDEST_CHANGE_TICKET, Long.class, -changeTicketTimeoutMillis);
+        return oldestTicket == null ? next : Math.min(next, oldestTicket);
+    }
+
+    /**
+     * Hard-deletes up to {@code limit} soft-deleted passengers in one short transaction, keeping a
+     * tombstone with the same CHANGE_SEQ so incremental sync still reports the deletion.
+     * Returns the number of rows purged.
+     */
+    @Transactional
+    public int purgeDeleted(int limit) {
+        Integer[] ids = jdbcTemplate.queryForList(SELECT_DELETED_IDS, Integer.class, limit).toArray(Integer[]::new);
+        if (ids.length == 0) {
+            return 0;
+        }
+        jdbcTemplate.update(INSERT_TOMBSTONES, ps -> ps.setObject(1, ids));
+        return jdbcTemplate.update(PURGE_DELETED, ps -> ps.setObject(1, ids));
+    }
+
+    /**
+     * Inserts the passengers as one JDBC batch, assigning ids from PASSENGER_SEQ in
+     * blocks of {@link Passenger#ID_ALLOCATION_SIZE} the same way Hibernate's pooled-lo optimizer does.
+     * The CREATED outbox events are written in the same transaction. Callers hold a change ticket
+     * (see {@link #openChangeTicket()}) around the call.
+     */
+    @Transactional
+    public List<Passenger> insertAll(List<Passenger> passengers) {
+        int nextId = 0;
+        int remainingInBlock = 0;
+        for (Passenger passenger : passengers) {
+            if (remainingInBlock == 0) {
+                nextId = jdbcTemplate.queryForObject(NEXT_ID_BLOCK, Integer.class);
+                remainingInBlock = Passenger.ID_ALLOCATION_SIZE;
+            }
+            passenger.setPassengerId(nextId++);
+            // Matches the column default, so the outbox event carries the stored version
+            passenger.setVersion(0L);
+            remainingInBlock--;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PASSENGER, passengers, passengers.size(), (ps, passenger) -> {
+            ps.setInt(1, passenger.getPassengerId());
+            ps.setString(2, passenger.getName());
+            ps.setString(3, passenger.getEmail());
+        });
+        passengerOutboxRepository.appendAll(PassengerChangeType.CREATED, passengers);
+        return passengers;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ride_hailing.passenger.repository;
+
+import com.ride_hailing.passenger.dto.PassengerChangeEventDTO;
+import com.ride_hailing.passenger.dto.PassengerChangeType;
+import com.ride_hailing.passenger.model.Passenger;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * PASSENGER_OUTBOX holds one row per passenger mutation until the relay has published it.
+ * Rows are appended in the caller's transaction, so an event exists exactly when its change committed.
+ * Events of one passenger are appended under its row lock, so they get increasing EVENT_IDs in commit order.
+ * Across passengers a lower EVENT_ID may commit later; the relay reads the whole table on every poll, so
+ * such an event simply goes out in a later batch.
+ */
+@Repository
+public class PassengerOutboxRepository {
+    private static final String INSERT_EVENT = "INSERT INTO PASSENGER_OUTBOX "
+            + "(EVENT_TYPE, PASSENGER_ID, PASSENGER_VERSION, NAME, EMAIL) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_BATCH = "SELECT EVENT_ID, EVENT_TYPE, PASSENGER_ID, PASSENGER_VERSION, "
+            + "NAME, EMAIL, OCCURRED_AT FROM PASSENGER_OUTBOX ORDER BY EVENT_ID LIMIT ?";
+    // Takes a free or expired lease, or renews our own; the database clock is the only one compared
+    private static final String CLAIM_RELAY = "UPDATE PASSENGER_OUTBOX_RELAY "
+            + "SET OWNER = ?, LEASE_UNTIL = DATEADD(MILLISECOND, ?, CURRENT_TIMESTAMP) "
+            + "WHERE ID = 1 AND (OWNER = ? OR OWNER IS NULL OR LEASE_UNTIL < CURRENT_TIMESTAMP)";
+    private static final String DELETE_EVENTS = "DELETE FROM PASSENGER_OUTBOX WHERE EVENT_ID = ANY(?)";
+
+    private static final RowMapper<PassengerChangeEventDTO> EVENT_ROW_MAPPER = (rs, rowNum) -> PassengerChangeEventDTO.builder()
+            .eventId(rs.getLong(1))
+            .type(PassengerChangeType.valueOf(rs.getString(2)))
+            .passengerId(rs.getInt(3))
+            .version(rs.getObject(4, Long.class))
+            .name(rs.getString(5))
+            .email(rs.getString(6))
+            .occurredAt(rs.getObject(7, Instant.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PassengerOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(PassengerChangeType type, Passenger passenger) {
+        appendAll(type, List.of(passenger));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(PassengerChangeType type, List<Passenger> passengers) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, passengers, passengers.size(), (ps, passenger) -> {
+            ps.setString(1, type.name());
+            ps.setInt(2, passenger.getPassengerId());
+            ps.setObject(3, passenger.getVersion());
+            ps.setString(4, passenger.getName());
+            ps.setString(5, passenger.getEmail());
+        });
+    }
+
+    /**
+     * Leases the relay to {@code owner} for {@code leaseMillis}, or renews its lease. Returns {@code false}
+     * when another relay's lease is still running.
+     */
+    public boolean claimRelay(String owner, long leaseMillis) {
+        return jdbcTemplate.update(CLAIM_RELAY, owner, leaseMillis, owner) == 1;
+    }
+
+    public List<PassengerChangeEventDTO> findBatch(int limit) {
+        return jdbcTemplate.query(SELECT_BATCH, EVENT_ROW_MAPPER, limit);
+    }
+
+    public int delete(List<PassengerChangeEventDTO> events) {
+        Long[] eventIds = events.stream().map(PassengerChangeEventDTO::eventId).toArray(Long[]::new);
+        return jdbcTemplate.update(DELETE_EVENTS, ps -> ps.setObject(1, eventIds));
+    }
+}
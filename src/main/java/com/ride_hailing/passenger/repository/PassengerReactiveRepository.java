@@ -0,0 +1,90 @@
+package com.ride_hailing.passenger.repository;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * R2DBC counterpart of the read side of {@link PassengerJdbcRepository}, with the same statements and
+ * the same row-to-{@link PassengerDTO} mapping. Rows are emitted as the subscriber requests them, so
+ * a slow client holds back the cursor instead of buffering the result. Queries subscribe, and request
+ * rows, on the {@code r2dbcScheduler}, which keeps the embedded H2 driver off the event loops.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PassengerReactiveRepository {
+    private static final String SELECT_PASSENGER = "SELECT PASSENGER_ID, NAME, EMAIL, VERSION, UPDATED_AT FROM PASSENGER";
+    private static final String SELECT_BY_ID = SELECT_PASSENGER + " WHERE PASSENGER_ID = $1 AND DELETED = FALSE";
+    private static final String SELECT_BY_IDS = SELECT_PASSENGER + " WHERE PASSENGER_ID = ANY($1) AND DELETED = FALSE";
+    private static final String SELECT_BY_EMAIL = SELECT_PASSENGER + " WHERE EMAIL_NORMALIZED = LOWER($1) AND DELETED = FALSE";
+    private static final String SELECT_ALL_ORDERED = SELECT_PASSENGER + " WHERE DELETED = FALSE ORDER BY PASSENGER_ID";
+    private static final String SELECT_PAGE = SELECT_PASSENGER + " WHERE PASSENGER_ID > $1 AND DELETED = FALSE "
+            + "ORDER BY PASSENGER_ID LIMIT $2";
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler scheduler;
+
+    public PassengerReactiveRepository(DatabaseClient databaseClient, @Qualifier("r2dbcScheduler") Scheduler scheduler) {
+        this.databaseClient = databaseClient;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<PassengerDTO> findDTOById(Integer passengerId) {
+        return databaseClient.sql(SELECT_BY_ID)
+                .bind(0, passengerId)
+                .map(PassengerReactiveRepository::mapRow)
+                .one()
+                .subscribeOn(scheduler);
+    }
+
+    public Flux<PassengerDTO> findAllDTOsById(Collection<Integer> passengerIds) {
+        return databaseClient.sql(SELECT_BY_IDS)
+                .bind(0, passengerIds.toArray(Integer[]::new))
+                .map(PassengerReactiveRepository::mapRow)
+                .all()
+                .subscribeOn(scheduler);
+    }
+
+    public Mono<PassengerDTO> findDTOByEmail(String email) {
+        return databaseClient.sql(SELECT_BY_EMAIL)
+                .bind(0, email)
+                .map(PassengerReactiveRepository::mapRow)
+                .one()
+                .subscribeOn(scheduler);
+    }
+
+    public Flux<PassengerDTO> findAllDTOs() {
+        return databaseClient.sql(SELECT_ALL_ORDERED)
+                .map(PassengerReactiveRepository::mapRow)
+                .all()
+                .subscribeOn(scheduler);
+    }
+
+    public Flux<PassengerDTO> findPage(Integer afterPassengerId, int limit) {
+        return databaseClient.sql(SELECT_PAGE)
+                .bind(0, afterPassengerId)
+                .bind(1, limit)
+                .map(PassengerReactiveRepository::mapRow)
+                .all()
+                .subscribeOn(scheduler);
+    }
+
+    private static PassengerDTO mapRow(Readable row) {
+        return PassengerDTO.builder()
+                .passengerId(row.get(0, Integer.class))
+                .name(row.get(1, String.class))
+                .email(row.get(2, String.class))
+                .version(row.get(3, Long.class))
+                .updatedAt(row.get(4, Instant.class))
+                .build();
+    }
+}
@@ -1,13 +1,17 @@
 package com.ride_hailing.passenger.repository;
 
 import com.ride_hailing.passenger.model.Passenger;
-import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PassengerRepository extends ListCrudRepository<Passenger, Integer> {
+public interface PassengerRepository extends JpaRepository<Passenger, Integer> {
     Optional<Passenger> findByPassengerId(Integer passengerId);
+
+    @Query(value = "SELECT * FROM PASSENGER WHERE EMAIL_NORMALIZED = LOWER(:email)", nativeQuery = true)
+    Optional<Passenger> findByEmail(@Param("email") String email);
 }
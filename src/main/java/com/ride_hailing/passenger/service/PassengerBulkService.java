@@ -0,0 +1,219 @@
+package com.ride_hailing.passenger.service;
+
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.cache.PassengerSharedCache;
+import com.ride_hailing.passenger.dto.BulkCreateResultDTO;
+import com.ride_hailing.passenger.dto.BulkCreateStatus;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mapper.Mapper;
+import com.ride_hailing.passenger.model.Passenger;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.util.PassengerEmails;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Log4j2
+@Service
+@Timed("passenger.service")
+public class PassengerBulkService {
+    private final PassengerJdbcRepository passengerJdbcRepository;
+    private final PassengerChangeTickets passengerChangeTickets;
+    private final Mapper<Passenger, PassengerDTO> passengerMapper;
+    private final PassengerCache passengerCache;
+    private final PassengerSharedCache passengerSharedCache;
+    private final Validator validator;
+    private final int batchSize;
+
+    public PassengerBulkService(PassengerJdbcRepository passengerJdbcRepository,
+                                PassengerChangeTickets passengerChangeTickets,
+                                Mapper<Passenger, PassengerDTO> passengerMapper,
+                                PassengerCache passengerCache,
+                                PassengerSharedCache passengerSharedCache,
+                                Validator validator,
+                                @Value("${passenger.bulk.batch-size:500}") int batchSize) {
+        this.passengerJdbcRepository = passengerJdbcRepository;
+        this.passengerChangeTickets = passengerChangeTickets;
+        this.passengerMapper = passengerMapper;
+        this.passengerCache = passengerCache;
+        this.passengerSharedCache = passengerSharedCache;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Validates and inserts passengers as they are pulled from the iterator, one JDBC batch
+     * at a time, and reports a result for every item in input order. Only one batch is held in memory.
+     */
+    public void bulkCreatePassengers(Iterator<PassengerDTO> passengers, Consumer<BulkCreateResultDTO> resultConsumer) {
+        List<BulkItem> batch = new ArrayList<>(batchSize);
+        long index = 0;
+        while (true) {
+            PassengerDTO passengerDTO;
+            try {
+                if (!passengers.hasNext()) {
+                    break;
+                }
+                passengerDTO = passengers.next();
+            } catch (RuntimeException e) {
+                flush(batch, resultConsumer);
+                resultConsumer.accept(failed(index, "Malformed input: " + e.getMessage()));
+                return;
+            }
+
+            Map<String, String> errors = validate(passengerDTO);
+            batch.add(errors.isEmpty()
+                    ? new BulkItem(index, passengerMapper.mapToEntity(passengerDTO), null)
+                    : new BulkItem(index, null, errors));
+            index++;
+
+            if (batch.size() >= batchSize) {
+                flush(batch, resultConsumer);
+            }
+        }
+        flush(batch, resultConsumer);
+    }
+
+    private Map<String, String> validate(PassengerDTO passengerDTO) {
+        if (passengerDTO == null) {
+            return Map.of("passenger", "Passenger is required");
+        }
+        Set<ConstraintViolation<PassengerDTO>> violations = validator.validate(passengerDTO);
+        Map<String, String> errors = new LinkedHashMap<>();
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return errors;
+    }
+
+    private void flush(List<BulkItem> batch, Consumer<BulkCreateResultDTO> resultConsumer) {
+        List<BulkItem> valid = batch.stream()
+                .filter(BulkItem::isValid)
+                .toList();
+
+        Map<Long, BulkCreateResultDTO> rejected = new HashMap<>();
+        if (!valid.isEmpty()) {
+            try {
+                insert(valid);
+            } catch (DataAccessException e) {
+                if (PassengerEmails.isDuplicate(e)) {
+                    // Only the rows that collide on email are rejected; the rest of the batch goes in as one batch.
+                    insertWithoutConflicts(valid, rejected);
+                } else {
+                    log.warn("Bulk insert of {} passengers failed", valid.size(), e);
+                    String failure = e.getMostSpecificCause().getMessage();
+                    valid.forEach(item -> rejected.put(item.index(), failed(item.index(), failure)));
+                }
+            }
+        }
+
+        for (BulkItem item : batch) {
+            if (!item.isValid()) {
+                resultConsumer.accept(BulkCreateResultDTO.builder()
+                        .index(item.index())
+                        .status(BulkCreateStatus.INVALID)
+                        .errors(item.errors())
+                        .build());
+            } else if (rejected.containsKey(item.index())) {
+                resultConsumer.accept(rejected.get(item.index()));
+            } else {
+                resultConsumer.accept(BulkCreateResultDTO.builder()
+                        .index(item.index())
+                        .status(BulkCreateStatus.CREATED)
+                        .passengerId(item.passenger().getPassengerId())
+                        .build());
+            }
+        }
+        batch.clear();
+    }
+
+    private void insert(List<BulkItem> items) {
+        List<Passenger> passengers = items.stream()
+                .map(BulkItem::passenger)
+                .toList();
+        passengerChangeTickets.write(status -> passengerJdbcRepository.insertAll(passengers));
+        passengers.forEach(passenger -> {
+            passengerCache.invalidate(passenger.getPassengerId());
+            passengerSharedCache.publishAfterCommit(passenger.getPassengerId(), passenger.getVersion());
+        });
+    }
+
+    /**
+     * Rejects the rows whose email a live passenger or an earlier row of the batch already has, and
+     * inserts the rest as one batch. A passenger committed in the meantime can collide again, so this
+     * repeats while each round drops at least one row.
+     */
+    private void insertWithoutConflicts(List<BulkItem> items, Map<Long, BulkCreateResultDTO> rejected) {
+        List<BulkItem> remaining = items;
+        while (true) {
+            List<BulkItem> accepted = withoutConflicts(remaining, rejected);
+            if (accepted.isEmpty()) {
+                return;
+            }
+            try {
+                insert(accepted);
+                return;
+            } catch (DataAccessException e) {
+                if (!PassengerEmails.isDuplicate(e) || accepted.size() == remaining.size()) {
+                    log.warn("Bulk insert of {} passengers failed", accepted.size(), e);
+                    String failure = e.getMostSpecificCause().getMessage();
+                    accepted.forEach(item -> rejected.put(item.index(), failed(item.index(), failure)));
+                    return;
+                }
+                remaining = accepted;
+            }
+        }
+    }
+
+    private List<BulkItem> withoutConflicts(List<BulkItem> items, Map<Long, BulkCreateResultDTO> rejected) {
+        Set<String> taken = passengerJdbcRepository.findTakenEmails(items.stream()
+                .map(item -> PassengerEmails.normalize(item.passenger().getEmail()))
+                .collect(Collectors.toSet()));
+        Set<String> seen = new HashSet<>();
+        List<BulkItem> accepted = new ArrayList<>(items.size());
+        for (BulkItem item : items) {
+            String email = PassengerEmails.normalize(item.passenger().getEmail());
+            if (!taken.contains(email) && seen.add(email)) {
+                accepted.add(item);
+            } else {
+                rejected.put(item.index(), conflict(item.index(), item.passenger().getEmail()));
+            }
+        }
+        return accepted;
+    }
+
+    private BulkCreateResultDTO conflict(long index, String email) {
+        return BulkCreateResultDTO.builder()
+                .index(index)
+                .status(BulkCreateStatus.CONFLICT)
+                .errors(Map.of("email", "Passenger with email " + email + " already exists"))
+                .build();
+    }
+
+    private BulkCreateResultDTO failed(long index, String message) {
+        return BulkCreateResultDTO.builder()
+                .index(index)
+                .status(BulkCreateStatus.FAILED)
+                .errors(Map.of("passenger", String.valueOf(message)))
+                .build();
+    }
+
+    private record BulkItem(long index, Passenger passenger, Map<String, String> errors) {
+        boolean isValid() {
+            return passenger != null;
+        }
+    }
+}
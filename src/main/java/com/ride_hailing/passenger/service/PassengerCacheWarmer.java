@@ -0,0 +1,91 @@
+package com.ride_hailing.passenger.service;
+
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.cache.PassengerSharedCache;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.util.PassengerIds;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares which passengers are hot and preloads them on startup. Every node periodically adds its
+ * near-cache's most used ids to a hot set in the shared tier; with {@code passenger.cache.warm-up.enabled}
+ * a starting node reads the top of that set before it reports ready, from the shared tier where it
+ * holds the passengers and from the database in lookup-sized chunks for the rest.
+ */
+@Log4j2
+@Component
+public class PassengerCacheWarmer {
+    private final PassengerCache passengerCache;
+    private final PassengerSharedCache passengerSharedCache;
+    private final PassengerJdbcRepository passengerJdbcRepository;
+    private final boolean warmUpEnabled;
+    private final int warmUpSize;
+    private final int publishedSize;
+    private final int chunkSize;
+
+    public PassengerCacheWarmer(PassengerCache passengerCache,
+                                PassengerSharedCache passengerSharedCache,
+                                PassengerJdbcRepository passengerJdbcRepository,
+                                @Value("${passenger.cache.warm-up.enabled:false}") boolean warmUpEnabled,
+                                @Value("${passenger.cache.warm-up.size:10000}") int warmUpSize,
+                                @Value("${passenger.cache.shared.hot-ids.published-size:1000}") int publishedSize,
+                                @Value("${passenger.lookup.chunk-size:500}") int chunkSize) {
+        this.passengerCache = passengerCache;
+        this.passengerSharedCache = passengerSharedCache;
+        this.passengerJdbcRepository = passengerJdbcRepository;
+        this.warmUpEnabled = warmUpEnabled;
+        this.warmUpSize = warmUpSize;
+        this.publishedSize = publishedSize;
+        this.chunkSize = chunkSize;
+    }
+
+    // Readiness is reported after the ApplicationReadyEvent listeners return, so no traffic arrives while warming
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUpEnabled || !passengerSharedCache.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Integer> hotIds = passengerSharedCache.hottestIds(warmUpSize);
+        int warmed = warmUp(hotIds);
+        log.info("Warmed the passenger cache with {} of {} hot ids in {} ms",
+                warmed, hotIds.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Loads the passengers into the near-cache and returns how many were found.
+     */
+    public int warmUp(List<Integer> passengerIds) {
+        Map<Integer, PassengerDTO> shared = passengerSharedCache.getAll(passengerIds);
+        shared.values().forEach(passengerCache::put);
+
+        int[] missingIds = passengerIds.stream()
+                .filter(passengerId -> !shared.containsKey(passengerId))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int loaded = 0;
+        for (List<Integer> chunk : PassengerIds.chunk(missingIds, chunkSize)) {
+            List<PassengerDTO> passengers = passengerJdbcRepository.findAllDTOsById(chunk);
+            passengerSharedCache.storeAll(passengers);
+            passengers.forEach(passengerCache::put);
+            loaded += passengers.size();
+        }
+        return shared.size() + loaded;
+    }
+
+    @Scheduled(fixedDelayString = "${passenger.cache.shared.hot-ids.interval-ms:60000}")
+    public void publishHotIds() {
+        if (passengerSharedCache.isEnabled()) {
+            passengerSharedCache.recordHotIds(passengerCache.hottest(publishedSize));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ride_hailing.passenger.service;
+
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+/**
+ * Runs passenger writes inside a change ticket (see {@link PassengerJdbcRepository#openChangeTicket()}),
+ * so the change log stays gap-free without writers queueing on a shared lock. Every write that draws
+ * a CHANGE_SEQ goes through here.
+ */
+@Component
+public class PassengerChangeTickets {
+    private final PassengerJdbcRepository passengerJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate ticketTransactionTemplate;
+
+    public PassengerChangeTickets(PassengerJdbcRepository passengerJdbcRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.passengerJdbcRepository = passengerJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Tickets must be visible to readers before the write draws anything, even inside a caller's transaction
+        this.ticketTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.ticketTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T write(TransactionCallback<T> write) {
+        long ticket = ticketTransactionTemplate.execute(status -> passengerJdbcRepository.openChangeTicket());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Joined the caller's transaction: the changes settle when it ends, not when the callback returns
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    close(ticket);
+                }
+            });
+            return transactionTemplate.execute(write);
+        }
+        try {
+            return transactionTemplate.execute(write);
+        } finally {
+            close(ticket);
+        }
+    }
+
+    public void writeWithoutResult(Consumer<TransactionStatus> write) {
+        write(status -> {
+            write.accept(status);
+            return null;
+        });
+    }
+
+    private void close(long ticket) {
+        ticketTransactionTemplate.executeWithoutResult(status -> passengerJdbcRepository.closeChangeTicket(ticket));
+    }
+}
@@ -0,0 +1,223 @@
+package com.ride_hailing.passenger.service;
+
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.config.ReplicaRouting;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces concurrent by-id lookups that miss the cache. Callers asking for an id that is already
+ * being loaded wait for that load (single-flight); ids requested within {@code batch-window-micros}
+ * of each other are loaded by one query (micro-batching). The first caller of a batch runs the query
+ * on its own thread for everyone. It waits out the window, or until the batch is full, only while
+ * other lookups are in progress; a lookup that arrives alone is loaded at once. When the cache
+ * invalidates an id, the loads in flight for it are no longer joined and the batch still open for it
+ * is closed, so a caller arriving after a write starts a load that can see it.
+ */
+@Component
+public class PassengerLookupBatcher implements MeterBinder, PassengerCache.InvalidationListener {
+    private final PassengerJdbcRepository passengerJdbcRepository;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ConcurrentHashMap<Integer, CompletableFuture<Optional<PassengerDTO>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private Batch open;
+
+    public PassengerLookupBatcher(PassengerJdbcRepository passengerJdbcRepository,
+                                  PassengerCache passengerCache,
+                                  @Value("${passenger.lookup.batch-window-micros:1000}") long windowMicros,
+                                  @Value("${passenger.lookup.batch-max-size:500}") int maxBatchSize) {
+        this.passengerJdbcRepository = passengerJdbcRepository;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        passengerCache.addInvalidationListener(this);
+    }
+
+    public Optional<PassengerDTO> findById(Integer passengerId) {
+        // A read-your-writes caller must not share a load that may run against a replica
+        if (ReplicaRouting.isPinnedToPrimary()) {
+            queries.increment();
+            return passengerJdbcRepository.findDTOById(passengerId);
+        }
+
+        active.incrementAndGet();
+        try {
+            return findCoalesced(passengerId);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private Optional<PassengerDTO> findCoalesced(Integer passengerId) {
+        CompletableFuture<Optional<PassengerDTO>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<PassengerDTO>> existing = inFlight.putIfAbsent(passengerId, created);
+        if (existing != null) {
+            coalesced.increment();
+            return join(existing);
+        }
+
+        Batch batch;
+        boolean leader;
+        lock.lock();
+        try {
+            leader = open == null;
+            if (leader) {
+                open = new Batch();
+            }
+            batch = open;
+            batch.lookups.add(new Lookup(passengerId, created));
+            if (batch.lookups.size() >= maxBatchSize) {
+                close(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            try {
+                awaitWindow(batch);
+            } finally {
+                load(batch.lookups);
+            }
+        }
+        return join(created);
+    }
+
+    private void awaitWindow(Batch batch) {
+        // Nobody else is looking anything up, so nobody would join: load at once
+        if (windowNanos > 0 && active.get() > 1) {
+            try {
+                batch.closed.await(windowNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.lock();
+        try {
+            if (open == batch) {
+                open = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private void close(Batch batch) {
+        open = null;
+        batch.closed.countDown();
+    }
+
+    // The batch is closed, so its lookups no longer change. Every future is completed, whatever the query throws
+    private void load(List<Lookup> lookups) {
+        queries.increment();
+        List<Integer> passengerIds = lookups.stream().map(Lookup::passengerId).distinct().toList();
+        try {
+            // A lone id keeps the single-row statement
+            List<PassengerDTO> rows = passengerIds.size() == 1
+                    ? passengerJdbcRepository.findDTOById(passengerIds.get(0)).stream().toList()
+                    : passengerJdbcRepository.findAllDTOsById(passengerIds);
+            Map<Integer, PassengerDTO> found = rows.stream()
+                    .collect(Collectors.toMap(PassengerDTO::passengerId, Function.identity()));
+            lookups.forEach(lookup -> {
+                inFlight.remove(lookup.passengerId(), lookup.future());
+                lookup.future().complete(Optional.ofNullable(found.get(lookup.passengerId())));
+            });
+        } catch (Throwable e) {
+            lookups.forEach(lookup -> {
+                inFlight.remove(lookup.passengerId(), lookup.future());
+                lookup.future().completeExceptionally(e);
+            });
+        }
+    }
+
+    @Override
+    public void invalidated(Integer passengerId) {
+        inFlight.remove(passengerId);
+        lock.lock();
+        try {
+            if (open != null && open.lookups.stream().anyMatch(lookup -> lookup.passengerId().equals(passengerId))) {
+                close(open);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidatedAll() {
+        inFlight.clear();
+        lock.lock();
+        try {
+            if (open != null) {
+                close(open);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Optional<PassengerDTO> join(CompletableFuture<Optional<PassengerDTO>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getQueryCount() {
+        return queries.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("passenger.lookup.coalesced", this, PassengerLookupBatcher::getCoalescedCount)
+                .description("By-id lookups that joined a load already in flight for the same id")
+                .register(meterRegistry);
+        FunctionCounter.builder("passenger.lookup.queries", this, PassengerLookupBatcher::getQueryCount)
+                .description("Database queries issued for cache-missing by-id lookups")
+                .register(meterRegistry);
+    }
+
+    private static final class Batch {
+        // An id may appear twice when it was invalidated between two callers' lookups
+        private final List<Lookup> lookups = new ArrayList<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+    }
+
+    private record Lookup(Integer passengerId, CompletableFuture<Optional<PassengerDTO>> future) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.ride_hailing.passenger.service;
+
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Hard-deletes soft-deleted passengers during the off-peak window set by {@code passenger.purge.cron}.
+ * Each batch is its own short transaction followed by a pause, so a large backlog never holds
+ * locks for long or competes with foreground reads; a run stops after {@code max-run-seconds}.
+ */
+@Log4j2
+@Service
+public class PassengerPurgeService {
+    private final PassengerJdbcRepository passengerJdbcRepository;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final Duration maxRunTime;
+
+    public PassengerPurgeService(PassengerJdbcRepository passengerJdbcRepository,
+                                 @Value("${passenger.purge.batch-size:1000}") int batchSize,
+                                 @Value("${passenger.purge.pause-ms:200}") long pauseMillis,
+                                 @Value("${passenger.purge.max-run-seconds:1800}") long maxRunSeconds) {
+        this.passengerJdbcRepository = passengerJdbcRepository;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.maxRunTime = Duration.ofSeconds(maxRunSeconds);
+    }
+
+    @Scheduled(cron = "${passenger.purge.cron:0 */10 1-5 * * *}")
+    public void scheduledPurge() {
+        try {
+            purge();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Passenger purge failed, will retry in the next window", e);
+        }
+    }
+
+    /**
+     * Purges batch by batch until nothing is left or the run time is used up, and returns the number of rows removed.
+     */
+    public long purge() throws InterruptedException {
+        passengerJdbcRepository.deleteExpiredChangeTickets();
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        long purged = 0;
+        int batch;
+        do {
+            batch = passengerJdbcRepository.purgeDeleted(batchSize);
+            purged += batch;
+            if (batch == batchSize && pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        } while (batch == batchSize && System.nanoTime() < deadline);
+
+        if (purged > 0) {
+            log.info("Purged {} deleted passengers", purged);
+        }
+        return purged;
+    }
+}
@@ -1,58 +1,238 @@
 package com.ride_hailing.passenger.service;
 
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.cache.PassengerSharedCache;
+import com.ride_hailing.passenger.dto.PassengerChangeType;
 import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerPageDTO;
+import com.ride_hailing.passenger.dto.PassengerSearchPageDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncPageDTO;
+import com.ride_hailing.passenger.exception.ConflictException;
+import com.ride_hailing.passenger.exception.PreconditionFailedException;
 import com.ride_hailing.passenger.mapper.Mapper;
 import com.ride_hailing.passenger.model.Passenger;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.repository.PassengerOutboxRepository;
 import com.ride_hailing.passenger.repository.PassengerRepository;
+import com.ride_hailing.passenger.util.PassengerEmails;
+import com.ride_hailing.passenger.util.PassengerIds;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
+@Timed("passenger.service")
 @RequiredArgsConstructor
 public class PassengerService {
     private final PassengerRepository passengerRepository;
+    private final PassengerJdbcRepository passengerJdbcRepository;
+    private final PassengerOutboxRepository passengerOutboxRepository;
+    private final PassengerChangeTickets passengerChangeTickets;
     private final Mapper<Passenger, PassengerDTO> passengerMapper;
+    private final PassengerCache passengerCache;
+    private final PassengerSharedCache passengerSharedCache;
+    private final PassengerLookupBatcher passengerLookupBatcher;
+    @Qualifier("passengerLookupExecutor")
+    private final Executor passengerLookupExecutor;
+    @Value("${passenger.lookup.chunk-size:500}")
+    private final int lookupChunkSize;
 
     public Optional<PassengerDTO> getPassengerById(Integer passengerId) {
-        return passengerRepository.findByPassengerId(passengerId)
+        return passengerCache.get(passengerId, id -> passengerSharedCache.get(id, passengerLookupBatcher::findById));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PassengerDTO> getPassengerByEmail(String email) {
+        return passengerRepository.findByEmail(email)
                 .map(passengerMapper::mapToDTO);
     }
 
+    // No transaction here: each chunk runs in its own read-only transaction, so the caller holds no connection while waiting
     public List<PassengerDTO> getPassengerByIds(List<Integer> passengerIds) {
-        return passengerRepository.findAllById(passengerIds)
-                .stream()
-                .map(passengerMapper::mapToDTO)
+        int[] distinctIds = PassengerIds.distinct(passengerIds);
+        if (distinctIds.length == 0) {
+            return List.of();
+        }
+
+        List<List<Integer>> chunks = PassengerIds.chunk(distinctIds, lookupChunkSize);
+        if (chunks.size() == 1) {
+            return findChunk(chunks.get(0));
+        }
+
+        List<CompletableFuture<List<PassengerDTO>>> lookups = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> findChunk(chunk), passengerLookupExecutor))
+                .toList();
+        return lookups.stream()
+                .flatMap(lookup -> lookup.join().stream())
                 .toList();
     }
 
+    private List<PassengerDTO> findChunk(List<Integer> passengerIds) {
+        return passengerJdbcRepository.findAllDTOsById(passengerIds);
+    }
+
+    @Transactional(readOnly = true)
     public List<PassengerDTO> getAllPassengers() {
-        return passengerRepository.findAll()
-                .stream()
-                .map(passengerMapper::mapToDTO)
+        return passengerJdbcRepository.findAllDTOs();
+    }
+
+    @Transactional(readOnly = true)
+    public PassengerPageDTO getPassengerPage(Integer afterPassengerId, int limit) {
+        List<PassengerDTO> passengers = passengerJdbcRepository.findPageAfter(afterPassengerId, limit);
+
+        Integer nextAfter = passengers.size() < limit ? null : passengers.get(passengers.size() - 1).passengerId();
+        return PassengerPageDTO.builder()
+                .passengers(passengers)
+                .nextAfter(nextAfter)
+                .build();
+    }
+
+    /**
+     * Case-insensitive prefix search over name and email, ranked: exact name or email first, then
+     * name prefix matches, then email prefix matches. Each side reads at most {@code offset + limit + 1}
+     * index entries, so the cost depends on the page depth and not on the table size.
+     */
+    @Transactional(readOnly = true)
+    public PassengerSearchPageDTO searchPassengers(String query, int offset, int limit) {
+        String prefix = query.trim().toLowerCase(Locale.ROOT);
+        int window = offset + limit + 1;
+        Map<Integer, PassengerDTO> matches = new LinkedHashMap<>();
+        passengerJdbcRepository.findByNamePrefix(prefix, window).forEach(dto -> matches.putIfAbsent(dto.passengerId(), dto));
+        passengerJdbcRepository.findByEmailPrefix(prefix, window).forEach(dto -> matches.putIfAbsent(dto.passengerId(), dto));
+
+        // Stable sort: within a rank, name matches keep name order and email matches keep email order
+        List<PassengerDTO> ranked = matches.values().stream()
+                .sorted(Comparator.comparingInt(dto -> searchRank(dto, prefix)))
                 .toList();
+        List<PassengerDTO> page = ranked.subList(Math.min(offset, ranked.size()), Math.min(offset + limit, ranked.size()));
+        return PassengerSearchPageDTO.builder()
+                .passengers(page)
+                .nextOffset(ranked.size() > offset + limit ? offset + limit : null)
+                .build();
+    }
+
+    private static int searchRank(PassengerDTO passengerDTO, String prefix) {
+        String name = passengerDTO.name().toLowerCase(Locale.ROOT);
+        if (name.equals(prefix) || passengerDTO.email().toLowerCase(Locale.ROOT).equals(prefix)) {
+            return 0;
+        }
+        return name.startsWith(prefix) ? 1 : 2;
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllPassengers(Consumer<PassengerDTO> consumer) {
+        passengerJdbcRepository.streamAll(consumer);
+    }
+
+    /**
+     * One page of changes after the {@code since} token; {@code nextSince} is the token for the
+     * next call and stays at {@code since} when nothing changed.
+     */
+    @Transactional(readOnly = true)
+    public PassengerSyncPageDTO getChangesSince(long since, int limit) {
+        List<PassengerSyncDTO> changes = passengerJdbcRepository.findChangesSince(since, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).changeSeq();
+        return PassengerSyncPageDTO.builder()
+                .changes(changes)
+                .nextSince(nextSince)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamChangesSince(long since, Consumer<PassengerSyncDTO> consumer) {
+        passengerJdbcRepository.streamChangesSince(since, consumer);
     }
 
     public Optional<PassengerDTO> createPassenger(PassengerDTO passengerDTO) {
-        return Optional.of(passengerRepository.save(passengerMapper.mapToEntity(passengerDTO)))
-                .map(passengerMapper::mapToDTO);
+        return passengerChangeTickets.write(status -> {
+            Passenger createdPassenger = saveUniqueEmail(passengerDTO.email(),
+                    () -> passengerRepository.saveAndFlush(passengerMapper.mapToEntity(passengerDTO)));
+            passengerOutboxRepository.append(PassengerChangeType.CREATED, createdPassenger);
+            passengerCache.invalidateAfterCommit(createdPassenger.getPassengerId());
+            passengerSharedCache.publishAfterCommit(createdPassenger.getPassengerId(), createdPassenger.getVersion());
+            return Optional.of(createdPassenger)
+                    .map(passengerMapper::mapToDTO);
+        });
     }
 
+    /**
+     * A non-null {@code passengerDTO.version()} is the version the caller last saw (If-Match);
+     * the update is rejected if the stored passenger has moved on, before or during the write.
+     */
     public Optional<PassengerDTO> updatePassenger(Integer passengerId, PassengerDTO passengerDTO) {
-        return passengerRepository.findById(passengerId)
+        return passengerChangeTickets.write(status -> passengerRepository.findById(passengerId)
                 .map(existingPassenger -> {
+                    if (passengerDTO.version() != null && !passengerDTO.version().equals(existingPassenger.getVersion())) {
+                        throw new PreconditionFailedException("Passenger Id With " + passengerId + " has been modified");
+                    }
                     existingPassenger.setName(passengerDTO.name());
                     existingPassenger.setEmail(passengerDTO.email());
 
-                    Passenger updatedPassenger = passengerRepository.save(existingPassenger);
+                    Passenger updatedPassenger;
+                    try {
+                        updatedPassenger = saveUniqueEmail(passengerDTO.email(),
+                                () -> passengerRepository.saveAndFlush(existingPassenger));
+                    } catch (OptimisticLockingFailureException e) {
+                        throw passengerDTO.version() != null
+                                ? new PreconditionFailedException("Passenger Id With " + passengerId + " has been modified")
+                                : new ConflictException("Passenger Id With " + passengerId + " was modified concurrently");
+                    } finally {
+                        passengerCache.invalidateAfterCommit(passengerId);
+                    }
 
+                    passengerOutboxRepository.append(PassengerChangeType.UPDATED, updatedPassenger);
+                    passengerSharedCache.publishAfterCommit(passengerId, updatedPassenger.getVersion());
                     return passengerMapper.mapToDTO(updatedPassenger);
-                });
+                }));
+    }
+
+    private Passenger saveUniqueEmail(String email, Supplier<Passenger> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            if (PassengerEmails.isDuplicate(e)) {
+                throw new ConflictException("Passenger with email " + email + " already exists");
+            }
+            throw e;
+        }
     }
 
+    /**
+     * Soft-deletes the passenger: the row is flagged, hidden from reads and its email released,
+     * and {@link PassengerPurgeService} removes it later in batches.
+     */
     public void deletePassenger(Integer passengerId) {
-        passengerRepository.deleteById(passengerId);
+        passengerChangeTickets.writeWithoutResult(status -> {
+            passengerRepository.findById(passengerId)
+                    .ifPresent(passenger -> {
+                        passenger.setDeleted(true);
+                        Passenger deletedPassenger = passengerRepository.saveAndFlush(passenger);
+                        passengerOutboxRepository.append(PassengerChangeType.DELETED, deletedPassenger);
+                        passengerSharedCache.publishDeletedAfterCommit(passengerId, deletedPassenger.getVersion());
+                    });
+            passengerCache.invalidateAfterCommit(passengerId);
+        });
     }
 }
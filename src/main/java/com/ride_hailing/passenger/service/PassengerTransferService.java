@@ -0,0 +1,229 @@
+package com.ride_hailing.passenger.service;
+
+import com.ride_hailing.passenger.dto.BulkCreateStatus;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerTransferResultDTO;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.util.PassengerChunkFile;
+import com.ride_hailing.passenger.util.PassengerChunkFile.ChunkHeader;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves the passenger table to and from {@link PassengerChunkFile}s. Export walks live passengers in
+ * id order through a JDBC cursor and writes one chunk per {@code chunk-rows} rows; import reads chunk
+ * by chunk and inserts through {@link PassengerBulkService}, which assigns new ids and validates rows
+ * as the bulk endpoint does. Only one chunk is held in memory either way. Both resume after a failure:
+ * export continues after the last complete chunk in the file, import after the last chunk recorded in
+ * a {@code .imported} file next to the source. A resumed import may replay one chunk; its rows that
+ * were already inserted are rejected by the unique email index instead of being inserted twice.
+ */
+@Log4j2
+@Service
+public class PassengerTransferService implements MeterBinder {
+    private static final String CHECKPOINT_SUFFIX = ".imported";
+
+    private final PassengerJdbcRepository passengerJdbcRepository;
+    private final PassengerBulkService passengerBulkService;
+    private final int chunkRows;
+    private final long progressIntervalNanos;
+    private final LongAdder exportedRows = new LongAdder();
+    private final LongAdder exportedBytes = new LongAdder();
+    private final LongAdder importedRows = new LongAdder();
+    private final LongAdder importedBytes = new LongAdder();
+
+    public PassengerTransferService(PassengerJdbcRepository passengerJdbcRepository,
+                                    PassengerBulkService passengerBulkService,
+                                    @Value("${passenger.transfer.chunk-rows:50000}") int chunkRows,
+                                    @Value("${passenger.transfer.progress-interval-seconds:10}") long progressIntervalSeconds) {
+        this.passengerJdbcRepository = passengerJdbcRepository;
+        this.passengerBulkService = passengerBulkService;
+        this.chunkRows = chunkRows;
+        this.progressIntervalNanos = TimeUnit.SECONDS.toNanos(progressIntervalSeconds);
+    }
+
+    public PassengerTransferResultDTO export(Path file) throws IOException {
+        try (PassengerChunkFile.Writer writer = PassengerChunkFile.Writer.open(file)) {
+            long resumedAt = writer.size();
+            if (writer.lastPassengerId() > 0) {
+                log.info("Resuming export to {} after passenger id {}", file, writer.lastPassengerId());
+            }
+            Progress progress = new Progress("Export", file);
+            List<PassengerDTO> chunk = new ArrayList<>(chunkRows);
+            try {
+                passengerJdbcRepository.streamAllAfter(writer.lastPassengerId(), passenger -> {
+                    chunk.add(passenger);
+                    if (chunk.size() == chunkRows) {
+                        writeChunk(writer, chunk, progress);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(writer, chunk, progress);
+            }
+            return progress.finish(0, resumedAt);
+        }
+    }
+
+    private void writeChunk(PassengerChunkFile.Writer writer, List<PassengerDTO> chunk, Progress progress) {
+        try {
+            long before = writer.size();
+            writer.write(chunk);
+            progress.chunk(chunk.size(), writer.size() - before);
+            exportedRows.add(chunk.size());
+            exportedBytes.add(writer.size() - before);
+            chunk.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops at the first chunk with rows that failed to insert, without recording it, so that running
+     * the import again retries it. Invalid rows and email conflicts are counted and skipped.
+     */
+    public PassengerTransferResultDTO importFile(Path file) throws IOException {
+        Path checkpoint = file.resolveSibling(file.getFileName() + CHECKPOINT_SUFFIX);
+        long resumedAt = Files.exists(checkpoint)
+                ? Long.parseLong(Files.readString(checkpoint, StandardCharsets.US_ASCII).trim())
+                : PassengerChunkFile.FIRST_CHUNK_OFFSET;
+        try (PassengerChunkFile.Reader reader = PassengerChunkFile.Reader.open(file)) {
+            if (resumedAt > PassengerChunkFile.FIRST_CHUNK_OFFSET) {
+                log.info("Resuming import of {} at byte {} of {}", file, resumedAt, reader.size());
+            }
+            reader.seek(resumedAt);
+            Progress progress = new Progress("Import", file);
+            long rejected = 0;
+            ChunkHeader chunk;
+            while ((chunk = reader.next()) != null) {
+                Map<BulkCreateStatus, Long> statuses = new EnumMap<>(BulkCreateStatus.class);
+                passengerBulkService.bulkCreatePassengers(reader.read(chunk).iterator(),
+                        result -> statuses.merge(result.status(), 1L, Long::sum));
+                long failed = statuses.getOrDefault(BulkCreateStatus.FAILED, 0L);
+                if (failed > 0) {
+                    throw new IOException("Import of " + file + " stopped at byte " + chunk.offset() + ": " + failed
+                            + " of " + chunk.rowCount() + " rows failed to insert; run it again to resume there");
+                }
+                rejected += statuses.getOrDefault(BulkCreateStatus.INVALID, 0L)
+                        + statuses.getOrDefault(BulkCreateStatus.CONFLICT, 0L);
+                writeCheckpoint(checkpoint, chunk.end());
+
+                long bytes = chunk.end() - chunk.offset();
+                progress.chunk(chunk.rowCount(), bytes);
+                importedRows.add(chunk.rowCount());
+                importedBytes.add(bytes);
+            }
+            return progress.finish(rejected, resumedAt);
+        }
+    }
+
+    // Replaced atomically, so a crash leaves either the previous or the new offset
+    private static void writeCheckpoint(Path checkpoint, long offset) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(offset), StandardCharsets.US_ASCII);
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public long getExportedRowCount() {
+        return exportedRows.sum();
+    }
+
+    public long getExportedByteCount() {
+        return exportedBytes.sum();
+    }
+
+    public long getImportedRowCount() {
+        return importedRows.sum();
+    }
+
+    public long getImportedByteCount() {
+        return importedBytes.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("passenger.transfer.rows", this, PassengerTransferService::getExportedRowCount)
+                .tag("direction", "export")
+                .description("Passenger rows written to or read from bulk transfer files")
+                .register(meterRegistry);
+        FunctionCounter.builder("passenger.transfer.rows", this, PassengerTransferService::getImportedRowCount)
+                .tag("direction", "import")
+                .description("Passenger rows written to or read from bulk transfer files")
+                .register(meterRegistry);
+        FunctionCounter.builder("passenger.transfer.bytes", this, PassengerTransferService::getExportedByteCount)
+                .tag("direction", "export")
+                .description("Compressed bytes written to or read from bulk transfer files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("passenger.transfer.bytes", this, PassengerTransferService::getImportedByteCount)
+                .tag("direction", "import")
+                .description("Compressed bytes written to or read from bulk transfer files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Logs totals and throughput at most once per progress interval, and once at the end
+    private final class Progress {
+        private final String operation;
+        private final Path file;
+        private final long start = System.nanoTime();
+        private long lastLog = start;
+        private long chunks;
+        private long rows;
+        private long bytes;
+
+        private Progress(String operation, Path file) {
+            this.operation = operation;
+            this.file = file;
+        }
+
+        void chunk(int chunkRows, long chunkBytes) {
+            chunks++;
+            rows += chunkRows;
+            bytes += chunkBytes;
+            long now = System.nanoTime();
+            if (now - lastLog >= progressIntervalNanos) {
+                lastLog = now;
+                log(now, "in progress");
+            }
+        }
+
+        PassengerTransferResultDTO finish(long rejectedRows, long resumedAtOffset) {
+            long now = System.nanoTime();
+            log(now, "done");
+            return PassengerTransferResultDTO.builder()
+                    .chunks(chunks)
+                    .rows(rows)
+                    .rejectedRows(rejectedRows)
+                    .bytes(bytes)
+                    .resumedAtOffset(resumedAtOffset)
+                    .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(now - start))
+                    .build();
+        }
+
+        private void log(long now, String state) {
+            double seconds = Math.max((now - start) / 1e9, 1e-3);
+            log.info("{} {} {}: {} rows in {} chunks, {} KB, {} s ({} rows/s)", operation, state, file,
+                    rows, chunks, bytes / 1024, Math.round(seconds), Math.round(rows / seconds));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ride_hailing.passenger.util;
+
+/**
+ * Open-addressing hash set of primitive ints, so id de-duplication does not box every element.
+ */
+public class IntHashSet {
+    private static final int EMPTY = 0;
+
+    private int[] slots;
+    private int size;
+    private boolean containsEmptyValue;
+
+    public IntHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.slots = new int[capacity];
+    }
+
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            boolean added = !containsEmptyValue;
+            containsEmptyValue = true;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        size++;
+        if (size * 2 > slots.length) {
+            rehash(slots.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value == EMPTY) {
+            return containsEmptyValue;
+        }
+
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        int[] previous = slots;
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int value : previous) {
+            if (value != EMPTY) {
+                int index = mix(value) & mask;
+                while (slots[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+            }
+        }
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,270 @@
+package com.ride_hailing.passenger.util;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * File of passengers in independently compressed chunks, for bulk export and import. After a 4-byte
+ * magic, each chunk is a fixed header (row count, first and last passenger id, raw and compressed
+ * length, CRC32C of the compressed bytes) followed by one deflated {@link PassengerColumnar} block.
+ * Chunks are located from their headers alone, so a reader can seek to any chunk boundary and map just
+ * that chunk, and an interrupted writer leaves at most one torn chunk at the end, which
+ * {@link Writer#open} cuts off before appending.
+ */
+public final class PassengerChunkFile {
+    private static final byte[] MAGIC = {'P', 'C', 'F', '1'};
+    public static final long FIRST_CHUNK_OFFSET = MAGIC.length;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    private PassengerChunkFile() {
+    }
+
+    public record ChunkHeader(long offset, int rowCount, int firstPassengerId, int lastPassengerId,
+                              int rawLength, int compressedLength, int checksum) {
+        public long end() {
+            return offset + HEADER_BYTES + compressedLength;
+        }
+
+        private long payloadOffset() {
+            return offset + HEADER_BYTES;
+        }
+    }
+
+    /**
+     * Appends chunks, forcing each to disk before the next is started. Compression favours speed:
+     * columnar passenger blocks already shrink several times at the fastest level.
+     */
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final ExposedBuffer raw = new ExposedBuffer();
+        private final ExposedBuffer compressed = new ExposedBuffer();
+        private final byte[] block = new byte[64 * 1024];
+        private final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        private long position;
+        private int lastPassengerId;
+
+        private Writer(FileChannel channel, long position, int lastPassengerId) {
+            this.channel = channel;
+            this.position = position;
+            this.lastPassengerId = lastPassengerId;
+        }
+
+        /**
+         * Creates the file, or opens an existing one for appending after its last complete chunk.
+         */
+        public static Writer open(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                if (channel.size() == 0) {
+                    writeFully(channel, ByteBuffer.wrap(MAGIC), 0);
+                    return new Writer(channel, FIRST_CHUNK_OFFSET, 0);
+                }
+                checkMagic(channel);
+                long end = FIRST_CHUNK_OFFSET;
+                int lastPassengerId = 0;
+                ChunkHeader chunk;
+                while ((chunk = readHeader(channel, end)) != null && isIntact(channel, chunk)) {
+                    end = chunk.end();
+                    lastPassengerId = chunk.lastPassengerId();
+                }
+                channel.truncate(end);
+                return new Writer(channel, end, lastPassengerId);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Highest passenger id written so far, 0 for an empty file. Passengers are written in id order.
+         */
+        public int lastPassengerId() {
+            return lastPassengerId;
+        }
+
+        public long size() {
+            return position;
+        }
+
+        public ChunkHeader write(List<PassengerDTO> passengers) throws IOException {
+            raw.reset();
+            PassengerColumnar.write(passengers, raw);
+
+            compressed.reset();
+            deflater.reset();
+            deflater.setInput(raw.buffer(), 0, raw.size());
+            deflater.finish();
+            while (!deflater.finished()) {
+                compressed.write(block, 0, deflater.deflate(block));
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(compressed.buffer(), 0, compressed.size());
+            ChunkHeader chunk = new ChunkHeader(position, passengers.size(), passengers.get(0).passengerId(),
+                    passengers.get(passengers.size() - 1).passengerId(), raw.size(), compressed.size(), (int) crc.getValue());
+
+            header.clear();
+            header.putInt(chunk.rowCount()).putInt(chunk.firstPassengerId()).putInt(chunk.lastPassengerId())
+                    .putInt(chunk.rawLength()).putInt(chunk.compressedLength()).putInt(chunk.checksum())
+                    .flip();
+            writeFully(channel, header, position);
+            writeFully(channel, ByteBuffer.wrap(compressed.buffer(), 0, compressed.size()), chunk.payloadOffset());
+            channel.force(false);
+
+            position = chunk.end();
+            lastPassengerId = chunk.lastPassengerId();
+            return chunk;
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads chunks in file order; the compressed bytes of each chunk are mapped rather than copied onto the heap.
+     */
+    public static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final Inflater inflater = new Inflater();
+        private long position = FIRST_CHUNK_OFFSET;
+
+        private Reader(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        public static Reader open(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                checkMagic(channel);
+                return new Reader(channel);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        /**
+         * Continues from a chunk boundary previously returned by {@link ChunkHeader#end()}.
+         */
+        public void seek(long offset) {
+            position = offset;
+        }
+
+        /**
+         * The next chunk's header, or {@code null} at the end of the file. A chunk cut short by an interrupted write is an error.
+         */
+        public ChunkHeader next() throws IOException {
+            ChunkHeader chunk = readHeader(channel, position);
+            if (chunk == null) {
+                if (position < channel.size()) {
+                    throw new EOFException("Incomplete chunk at offset " + position);
+                }
+                return null;
+            }
+            position = chunk.end();
+            return chunk;
+        }
+
+        public List<PassengerDTO> read(ChunkHeader chunk) throws IOException {
+            MappedByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY, chunk.payloadOffset(), chunk.compressedLength());
+            if (checksum(payload.duplicate()) != chunk.checksum()) {
+                throw new IOException("Corrupt chunk at offset " + chunk.offset());
+            }
+
+            byte[] raw = new byte[chunk.rawLength()];
+            inflater.reset();
+            inflater.setInput(payload);
+            try {
+                int inflated = 0;
+                while (inflated < raw.length && !inflater.finished()) {
+                    inflated += inflater.inflate(raw, inflated, raw.length - inflated);
+                }
+                if (inflated != raw.length) {
+                    throw new IOException("Corrupt chunk at offset " + chunk.offset());
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt chunk at offset " + chunk.offset(), e);
+            }
+            return PassengerColumnar.read(new ByteArrayInputStream(raw));
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            channel.close();
+        }
+    }
+
+    private static void checkMagic(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+        if (channel.read(magic, 0) != MAGIC.length || !magic.flip().equals(ByteBuffer.wrap(MAGIC))) {
+            throw new IOException("Not a passenger chunk file");
+        }
+    }
+
+    // Null when no complete, plausible header and payload fit before the end of the file
+    private static ChunkHeader readHeader(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, offset + header.position()) < 0) {
+                return null;
+            }
+        }
+        header.flip();
+        ChunkHeader chunk = new ChunkHeader(offset, header.getInt(), header.getInt(), header.getInt(),
+                header.getInt(), header.getInt(), header.getInt());
+        if (chunk.rowCount() <= 0 || chunk.rawLength() < 0 || chunk.compressedLength() < 0
+                || chunk.end() > channel.size()) {
+            return null;
+        }
+        return chunk;
+    }
+
+    private static boolean isIntact(FileChannel channel, ChunkHeader chunk) throws IOException {
+        return checksum(channel.map(FileChannel.MapMode.READ_ONLY, chunk.payloadOffset(), chunk.compressedLength()))
+                == chunk.checksum();
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    // Reused across chunks without the copy ByteArrayOutputStream.toByteArray() makes
+    private static final class ExposedBuffer extends ByteArrayOutputStream {
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.ride_hailing.passenger.util;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compact binary encoding of a passenger list for service-to-service calls. After a 4-byte magic
+ * and the row count, each field is written as one column: ids as zig-zag varint deltas (one byte
+ * per row for ordered ids), then for names and emails all lengths followed by all UTF-8 bytes.
+ * Lengths are stored plus one, so 0 marks a null value. Carries the same fields as the JSON body.
+ */
+public final class PassengerColumnar {
+    private static final byte[] MAGIC = {'P', 'C', 'O', '1'};
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_ROWS = 1024;
+
+    private PassengerColumnar() {
+    }
+
+    public static void write(List<PassengerDTO> passengers, OutputStream outputStream) throws IOException {
+        Writer out = new Writer(outputStream);
+        out.writeBytes(MAGIC, 0, MAGIC.length);
+        out.writeVarInt(passengers.size());
+
+        int previousId = 0;
+        for (PassengerDTO passenger : passengers) {
+            int passengerId = passenger.passengerId();
+            out.writeVarInt(zigZag(passengerId - previousId));
+            previousId = passengerId;
+        }
+
+        writeStringColumn(out, passengers, PassengerDTO::name);
+        writeStringColumn(out, passengers, PassengerDTO::email);
+        out.flush();
+    }
+
+    public static List<PassengerDTO> read(InputStream inputStream) throws IOException {
+        Reader in = new Reader(inputStream);
+        for (byte b : MAGIC) {
+            if (in.readByte() != b) {
+                throw new IOException("Not a passenger columnar stream");
+            }
+        }
+        int count = in.readVarInt();
+        if (count < 0) {
+            throw new IOException("Malformed row count");
+        }
+
+        // The count is untrusted until its ids have arrived: every id takes at least one byte, so the id
+        // column grows with the input and the later count-sized arrays are bounded by bytes already read.
+        int[] ids = new int[Math.min(count, INITIAL_ROWS)];
+        int previousId = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == ids.length) {
+                ids = Arrays.copyOf(ids, (int) Math.min(count, 2L * ids.length));
+            }
+            previousId += unZigZag(in.readVarInt());
+            ids[i] = previousId;
+        }
+        String[] names = readStringColumn(in, count);
+        String[] emails = readStringColumn(in, count);
+
+        List<PassengerDTO> passengers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            passengers.add(PassengerDTO.builder()
+                    .passengerId(ids[i])
+                    .name(names[i])
+                    .email(emails[i])
+                    .build());
+        }
+        return passengers;
+    }
+
+    /**
+     * ASCII values, the common case, are copied char by char without an intermediate byte array;
+     * only values with other characters are encoded through {@link String#getBytes}.
+     */
+    private static void writeStringColumn(Writer out, List<PassengerDTO> passengers,
+                                          Function<PassengerDTO, String> column) throws IOException {
+        byte[][] encoded = null;
+        for (int i = 0; i < passengers.size(); i++) {
+            String value = column.apply(passengers.get(i));
+            if (value == null) {
+                out.writeVarInt(0);
+            } else if (isAscii(value)) {
+                out.writeVarInt(value.length() + 1);
+            } else {
+                if (encoded == null) {
+                    encoded = new byte[passengers.size()][];
+                }
+                encoded[i] = value.getBytes(StandardCharsets.UTF_8);
+                out.writeVarInt(encoded[i].length + 1);
+            }
+        }
+        for (int i = 0; i < passengers.size(); i++) {
+            if (encoded != null && encoded[i] != null) {
+                out.writeBytes(encoded[i], 0, encoded[i].length);
+            } else {
+                String value = column.apply(passengers.get(i));
+                if (value != null) {
+                    out.writeAscii(value);
+                }
+            }
+        }
+    }
+
+    private static String[] readStringColumn(Reader in, int count) throws IOException {
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            lengths[i] = in.readVarInt();
+        }
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] < 0) {
+                throw new IOException("Malformed string length");
+            }
+            if (lengths[i] > 0) {
+                values[i] = in.readUtf8(lengths[i] - 1);
+            }
+        }
+        return values;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Unsynchronized buffers: the JDK's buffered streams take a lock per byte written or read.
+    private static final class Writer {
+        private final OutputStream outputStream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+
+        private Writer(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        void writeVarInt(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeAscii(String value) throws IOException {
+            int length = value.length();
+            if (length > buffer.length) {
+                writeBytes(value.getBytes(StandardCharsets.US_ASCII), 0, length);
+                return;
+            }
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+            if (length > buffer.length - position) {
+                flushBuffer();
+                if (length > buffer.length) {
+                    outputStream.write(bytes, offset, length);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        void flush() throws IOException {
+            flushBuffer();
+            outputStream.flush();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.length - position < bytes) {
+                flushBuffer();
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static final class Reader {
+        private final InputStream inputStream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        private Reader(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        byte readByte() throws IOException {
+            if (position == limit && !fill()) {
+                throw new EOFException();
+            }
+            return buffer[position++];
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        String readUtf8(int length) throws IOException {
+            if (length <= limit - position) {
+                String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+                position += length;
+                return value;
+            }
+            int copied = limit - position;
+            // readNBytes(int) allocates as bytes arrive, so a forged length fails at end of stream instead of up front
+            byte[] rest = inputStream.readNBytes(length - copied);
+            if (rest.length != length - copied) {
+                throw new EOFException();
+            }
+            byte[] bytes = new byte[length];
+            System.arraycopy(buffer, position, bytes, 0, copied);
+            System.arraycopy(rest, 0, bytes, copied, rest.length);
+            position = limit;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private boolean fill() throws IOException {
+            int read = inputStream.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ride_hailing.passenger.util;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.exception.PreconditionFailedException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Strong validators derived from the passenger version column, so a 304 can be decided
+ * without serializing the body.
+ */
+public final class PassengerETags {
+    private static final String ANY = "*";
+    private static final int LIST_TAG_BYTES = 16;
+
+    private PassengerETags() {
+    }
+
+    /**
+     * {@code "<passengerId>-<version>"}, or null for a passenger that has no version yet.
+     */
+    public static String of(PassengerDTO passengerDTO) {
+        if (passengerDTO.version() == null) {
+            return null;
+        }
+        return "\"" + passengerDTO.passengerId() + "-" + passengerDTO.version() + "\"";
+    }
+
+    /**
+     * Digest of the media type and every (passengerId, version) pair in response order. The JSON, CBOR,
+     * Smile and columnar bodies of one list are different bytes, so each representation has its own tag.
+     */
+    public static String of(List<PassengerDTO> passengerDTOList, MediaType mediaType) {
+        MessageDigest digest = sha256();
+        digest.update((mediaType.getType() + "/" + mediaType.getSubtype()).getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+        for (PassengerDTO passengerDTO : passengerDTOList) {
+            buffer.clear();
+            buffer.putInt(Objects.requireNonNullElse(passengerDTO.passengerId(), 0));
+            buffer.putLong(Objects.requireNonNullElse(passengerDTO.version(), -1L));
+            digest.update(buffer.array());
+        }
+        byte[] hash = digest.digest();
+        return "\"" + HexFormat.of().formatHex(hash, 0, LIST_TAG_BYTES) + "\"";
+    }
+
+    /**
+     * The media type content negotiation will write for an Accept header: the most preferred one the
+     * endpoint produces, else its first, for requests that end in 406 or accept anything.
+     */
+    public static MediaType negotiated(String accept, List<MediaType> producible) {
+        if (accept != null) {
+            try {
+                List<MediaType> acceptable = MediaType.parseMediaTypes(accept);
+                MimeTypeUtils.sortBySpecificity(acceptable);
+                for (MediaType requested : acceptable) {
+                    for (MediaType candidate : producible) {
+                        if (requested.isCompatibleWith(candidate) && requested.getQualityValue() > 0) {
+                            return candidate;
+                        }
+                    }
+                }
+            } catch (InvalidMediaTypeException ignored) {
+                // rejected by content negotiation before the tag is used
+            }
+        }
+        return producible.get(0);
+    }
+
+    public static Instant lastModified(List<PassengerDTO> passengerDTOList) {
+        return passengerDTOList.stream()
+                .map(PassengerDTO::updatedAt)
+                .filter(Objects::nonNull)
+                .max(Instant::compareTo)
+                .orElse(null);
+    }
+
+    /**
+     * Returns the version named by an If-Match header for this passenger, or null for {@code *}.
+     * Weak tags and tags of other passengers never match.
+     */
+    public static Long matchedVersion(Integer passengerId, String ifMatch) {
+        String prefix = "\"" + passengerId + "-";
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (ANY.equals(trimmed)) {
+                return null;
+            }
+            if (trimmed.startsWith(prefix) && trimmed.endsWith("\"") && trimmed.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(trimmed.substring(prefix.length(), trimmed.length() - 1));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours, try the next tag
+                }
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + ifMatch + " does not match Passenger Id With " + passengerId);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ride_hailing.passenger.util;
+
+import com.ride_hailing.passenger.model.Passenger;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+public final class PassengerEmails {
+    private PassengerEmails() {
+    }
+
+    /**
+     * The form the unique index compares: EMAIL_NORMALIZED is LOWER(EMAIL).
+     */
+    public static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * True when the failure is the unique index on the normalised email rather than any other constraint.
+     */
+    public static boolean isDuplicate(DataAccessException e) {
+        if (!(e instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toUpperCase(Locale.ROOT).contains(Passenger.EMAIL_UNIQUE_INDEX);
+    }
+}
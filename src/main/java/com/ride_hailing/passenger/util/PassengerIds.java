@@ -0,0 +1,62 @@
+package com.ride_hailing.passenger.util;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+public final class PassengerIds {
+    private PassengerIds() {
+    }
+
+    /**
+     * Returns the non-null ids in first-seen order with duplicates removed.
+     */
+    public static int[] distinct(Collection<Integer> passengerIds) {
+        int[] distinct = new int[passengerIds.size()];
+        IntHashSet seen = new IntHashSet(passengerIds.size());
+        int count = 0;
+        for (Integer passengerId : passengerIds) {
+            if (passengerId != null && seen.add(passengerId)) {
+                distinct[count++] = passengerId;
+            }
+        }
+        return count == distinct.length ? distinct : Arrays.copyOf(distinct, count);
+    }
+
+    /**
+     * Splits ids into consecutive chunks of at most {@code chunkSize} elements.
+     */
+    public static List<List<Integer>> chunk(int[] passengerIds, int chunkSize) {
+        List<List<Integer>> chunks = new ArrayList<>((passengerIds.length + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < passengerIds.length; from += chunkSize) {
+            int to = Math.min(from + chunkSize, passengerIds.length);
+            List<Integer> chunk = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                chunk.add(passengerIds[i]);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns the requested ids, de-duplicated and in request order, that have no matching passenger.
+     */
+    public static List<Integer> missing(Collection<Integer> requestedIds, Collection<PassengerDTO> found) {
+        IntHashSet foundIds = new IntHashSet(found.size());
+        for (PassengerDTO passengerDTO : found) {
+            foundIds.add(passengerDTO.passengerId());
+        }
+
+        List<Integer> missingIds = new ArrayList<>();
+        for (int passengerId : distinct(requestedIds)) {
+            if (!foundIds.contains(passengerId)) {
+                missingIds.add(passengerId);
+            }
+        }
+        return missingIds;
+    }
+}
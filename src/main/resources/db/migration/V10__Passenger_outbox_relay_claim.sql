@@ -0,0 +1,7 @@
+-- The relay that holds this row locked is the only one publishing; the others skip their run
+CREATE TABLE PASSENGER_OUTBOX_RELAY
+(
+    ID INT PRIMARY KEY
+);
+
+INSERT INTO PASSENGER_OUTBOX_RELAY (ID) VALUES (1);
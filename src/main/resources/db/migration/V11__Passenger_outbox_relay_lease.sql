@@ -0,0 +1,5 @@
+-- The relay claim becomes a lease: a node publishes outside any transaction, so the claim outlives the
+-- transaction that took it and passes to another node only once LEASE_UNTIL has gone by
+ALTER TABLE PASSENGER_OUTBOX_RELAY ADD COLUMN OWNER VARCHAR(64);
+
+ALTER TABLE PASSENGER_OUTBOX_RELAY ADD COLUMN LEASE_UNTIL TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
@@ -0,0 +1,11 @@
+-- Replaces PASSENGER_CHANGE_LOCK. A writer commits a ticket drawn from PASSENGER_CHANGE_SEQ before its write
+-- transaction draws change numbers, and deletes it once that transaction has ended, so every change numbered
+-- below the oldest open ticket has committed or rolled back. Change-log readers stop there instead of writers
+-- queueing on one row.
+CREATE TABLE PASSENGER_CHANGE_TICKET
+(
+    TICKET    BIGINT PRIMARY KEY,
+    OPENED_AT TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+DROP TABLE PASSENGER_CHANGE_LOCK;
@@ -0,0 +1,7 @@
+ALTER TABLE PASSENGER ALTER COLUMN PASSENGER_ID DROP IDENTITY;
+
+CREATE SEQUENCE PASSENGER_SEQ START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE PASSENGER_SEQ RESTART WITH (SELECT COALESCE(MAX(PASSENGER_ID), 0) + 1 FROM PASSENGER);
+
+ALTER TABLE PASSENGER ALTER COLUMN PASSENGER_ID SET DEFAULT NEXT VALUE FOR PASSENGER_SEQ;
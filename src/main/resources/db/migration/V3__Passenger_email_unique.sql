@@ -0,0 +1,3 @@
+ALTER TABLE PASSENGER ADD COLUMN EMAIL_NORMALIZED VARCHAR(100) GENERATED ALWAYS AS (LOWER(EMAIL));
+
+CREATE UNIQUE INDEX UX_PASSENGER_EMAIL_NORMALIZED ON PASSENGER (EMAIL_NORMALIZED);
@@ -0,0 +1,3 @@
+ALTER TABLE PASSENGER ADD COLUMN VERSION BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE PASSENGER ADD COLUMN UPDATED_AT TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
@@ -0,0 +1,10 @@
+CREATE TABLE PASSENGER_OUTBOX
+(
+    EVENT_ID          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    EVENT_TYPE        VARCHAR(16)  NOT NULL,
+    PASSENGER_ID      INT          NOT NULL,
+    PASSENGER_VERSION BIGINT,
+    NAME              VARCHAR(100),
+    EMAIL             VARCHAR(100),
+    OCCURRED_AT       TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
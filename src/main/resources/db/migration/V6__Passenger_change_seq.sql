@@ -0,0 +1,20 @@
+CREATE SEQUENCE PASSENGER_CHANGE_SEQ START WITH 1 INCREMENT BY 1;
+
+ALTER TABLE PASSENGER ADD COLUMN CHANGE_SEQ BIGINT;
+
+UPDATE PASSENGER SET CHANGE_SEQ = NEXT VALUE FOR PASSENGER_CHANGE_SEQ;
+
+ALTER TABLE PASSENGER ALTER COLUMN CHANGE_SEQ SET DEFAULT NEXT VALUE FOR PASSENGER_CHANGE_SEQ;
+
+ALTER TABLE PASSENGER ALTER COLUMN CHANGE_SEQ SET NOT NULL;
+
+CREATE INDEX IX_PASSENGER_CHANGE_SEQ ON PASSENGER (CHANGE_SEQ);
+
+CREATE TABLE PASSENGER_TOMBSTONE
+(
+    PASSENGER_ID INT PRIMARY KEY,
+    CHANGE_SEQ   BIGINT DEFAULT NEXT VALUE FOR PASSENGER_CHANGE_SEQ NOT NULL,
+    DELETED_AT   TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IX_PASSENGER_TOMBSTONE_CHANGE_SEQ ON PASSENGER_TOMBSTONE (CHANGE_SEQ);
@@ -0,0 +1,13 @@
+ALTER TABLE PASSENGER ADD COLUMN DELETED BOOLEAN DEFAULT FALSE NOT NULL;
+
+CREATE INDEX IX_PASSENGER_DELETED ON PASSENGER (DELETED, PASSENGER_ID);
+
+-- Deleted passengers release their email: the normalized value is NULL and NULLs do not collide in a unique index
+DROP INDEX UX_PASSENGER_EMAIL_NORMALIZED;
+
+ALTER TABLE PASSENGER DROP COLUMN EMAIL_NORMALIZED;
+
+ALTER TABLE PASSENGER ADD COLUMN EMAIL_NORMALIZED VARCHAR(100)
+    GENERATED ALWAYS AS (CASE WHEN DELETED THEN NULL ELSE LOWER(EMAIL) END);
+
+CREATE UNIQUE INDEX UX_PASSENGER_EMAIL_NORMALIZED ON PASSENGER (EMAIL_NORMALIZED);
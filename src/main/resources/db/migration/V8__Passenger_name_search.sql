@@ -0,0 +1,5 @@
+-- Case-insensitive prefix search on name, mirroring EMAIL_NORMALIZED: deleted passengers are NULL and drop out of matches
+ALTER TABLE PASSENGER ADD COLUMN NAME_NORMALIZED VARCHAR(100)
+    GENERATED ALWAYS AS (CASE WHEN DELETED THEN NULL ELSE LOWER(NAME) END);
+
+CREATE INDEX IX_PASSENGER_NAME_NORMALIZED ON PASSENGER (NAME_NORMALIZED, PASSENGER_ID);
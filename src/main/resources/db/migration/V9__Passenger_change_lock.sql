@@ -0,0 +1,8 @@
+-- Writers lock this row before drawing from PASSENGER_CHANGE_SEQ and hold it until they commit,
+-- so change numbers become visible in the order they were drawn
+CREATE TABLE PASSENGER_CHANGE_LOCK
+(
+    ID INT PRIMARY KEY
+);
+
+INSERT INTO PASSENGER_CHANGE_LOCK (ID) VALUES (1);
@@ -0,0 +1,165 @@
+package com.ride_hailing.passenger.cacheTest;
+
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.dto.PassengerCacheStatsDTO;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassengerCacheTest {
+    private final PassengerCache passengerCache = new PassengerCache(100, 600, 30);
+
+    @Test
+    @DisplayName("Given: repeated lookups, When: get, Then: loader runs once and hits are counted")
+    void getReadThrough() {
+        AtomicInteger loads = new AtomicInteger();
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(1, "test", "test@email.com");
+
+        passengerCache.get(1, id -> {
+            loads.incrementAndGet();
+            return Optional.of(passengerDTO);
+        });
+        Optional<PassengerDTO> cached = passengerCache.get(1, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(cached).contains(passengerDTO);
+        assertThat(loads).hasValue(1);
+        PassengerCacheStatsDTO stats = passengerCache.stats();
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: missing id, When: get twice, Then: negative result is cached")
+    void getNegativeCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        passengerCache.get(999, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<PassengerDTO> cached = passengerCache.get(999, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(cached).isEmpty();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given: cached id, When: invalidate, Then: next get reloads")
+    void invalidate() {
+        passengerCache.get(1, id -> Optional.empty());
+        passengerCache.invalidate(1);
+
+        Optional<PassengerDTO> reloaded = passengerCache.get(1,
+                id -> Optional.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com")));
+
+        assertThat(reloaded).isPresent();
+        assertThat(passengerCache.stats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given: an invalidation during the load, When: get, Then: the loaded value is returned but not cached")
+    void getRacingInvalidation() {
+        Optional<PassengerDTO> loaded = passengerCache.get(1, id -> {
+            passengerCache.invalidate(2);
+            return Optional.of(MockPassenger.getPassengerDTO(1, "old", "old@email.com"));
+        });
+        Optional<PassengerDTO> reloaded = passengerCache.get(1,
+                id -> Optional.of(MockPassenger.getPassengerDTO(1, "new", "new@email.com")));
+
+        assertThat(loaded).map(PassengerDTO::name).contains("old");
+        assertThat(reloaded).map(PassengerDTO::name).contains("new");
+    }
+
+    @Test
+    @DisplayName("Given: concurrent misses for one id, When: get, Then: they share a single load")
+    void getCoalescesLoads() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(1, "test", "test@email.com");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<PassengerDTO>> first = executor.submit(() -> passengerCache.get(1, id -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return Optional.of(passengerDTO);
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Optional<PassengerDTO>> second = executor.submit(() -> passengerCache.get(1, id -> {
+                loads.incrementAndGet();
+                return Optional.empty();
+            }));
+            // Gives the second miss time to reach the cache while the first load is still running
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).contains(passengerDTO);
+            assertThat(second.get(5, TimeUnit.SECONDS)).contains(passengerDTO);
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given: a loader that finds its value stale, When: discardLoad inside the load, Then: the value is returned but not cached")
+    void discardLoad() {
+        Optional<PassengerDTO> loaded = passengerCache.get(1, id -> {
+            passengerCache.discardLoad(id);
+            return Optional.of(MockPassenger.getPassengerDTO(1, "old", "old@email.com"));
+        });
+        Optional<PassengerDTO> reloaded = passengerCache.get(1,
+                id -> Optional.of(MockPassenger.getPassengerDTO(1, "new", "new@email.com")));
+
+        assertThat(loaded).map(PassengerDTO::name).contains("old");
+        assertThat(reloaded).map(PassengerDTO::name).contains("new");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Given: cached versions, When: invalidateOlderThan, Then: only older entries and cached misses are dropped")
+    void invalidateOlderThan() {
+        passengerCache.put(MockPassenger.getPassengerDTO(1, "test", "test@email.com").toBuilder().version(2L).build());
+        passengerCache.put(MockPassenger.getPassengerDTO(2, "test", "test2@email.com").toBuilder().version(3L).build());
+        passengerCache.get(3, id -> Optional.empty());
+
+        passengerCache.invalidateOlderThan(1, 3L);
+        passengerCache.invalidateOlderThan(2, 3L);
+        passengerCache.invalidateOlderThan(3, 0L);
+
+        AtomicInteger loads = new AtomicInteger();
+        for (int passengerId = 1; passengerId <= 3; passengerId++) {
+            passengerCache.get(passengerId, id -> {
+                loads.incrementAndGet();
+                return Optional.empty();
+            });
+        }
+        assertThat(loads).hasValue(2);
+    }
+}
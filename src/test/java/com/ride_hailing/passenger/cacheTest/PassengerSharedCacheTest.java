@@ -0,0 +1,128 @@
+package com.ride_hailing.passenger.cacheTest;
+
+import com.ride_hailing.passenger.cache.InMemorySharedCacheClient;
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.cache.PassengerSharedCache;
+import com.ride_hailing.passenger.cache.SharedCacheClient;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two nodes, each with its own near-cache, sharing one in-memory tier
+class PassengerSharedCacheTest {
+    private final InMemorySharedCacheClient client = new InMemorySharedCacheClient();
+    private final PassengerCache nearCacheA = new PassengerCache(100, 600, 30);
+    private final PassengerCache nearCacheB = new PassengerCache(100, 600, 30);
+    private final PassengerSharedCache nodeA = node(client, nearCacheA);
+    private final PassengerSharedCache nodeB = node(client, nearCacheB);
+
+    private static PassengerSharedCache node(SharedCacheClient client, PassengerCache nearCache) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("sharedCacheClient", client));
+        PassengerSharedCache sharedCache = new PassengerSharedCache(beanFactory.getBeanProvider(SharedCacheClient.class),
+                nearCache, "invalidation", 600, 30, 100);
+        sharedCache.subscribe();
+        return sharedCache;
+    }
+
+    private static PassengerDTO passenger(String name, long version) {
+        return MockPassenger.getPassengerDTO(1, name, "test@email.com").toBuilder()
+                .version(version)
+                .updatedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .build();
+    }
+
+    private static Optional<PassengerDTO> read(PassengerCache nearCache, PassengerSharedCache sharedCache,
+                                               Function<Integer, Optional<PassengerDTO>> database) {
+        return nearCache.get(1, id -> sharedCache.get(id, database));
+    }
+
+    @Test
+    @DisplayName("Given: node A loaded a passenger, When: node B reads it, Then: served from the shared tier with its version")
+    void getSharedHit() {
+        read(nearCacheA, nodeA, id -> Optional.of(passenger("test", 2)));
+        AtomicInteger loads = new AtomicInteger();
+
+        Optional<PassengerDTO> passengerDTO = read(nearCacheB, nodeB, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(passengerDTO).contains(passenger("test", 2));
+        assertThat(loads).hasValue(0);
+        assertThat(nodeB.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: node B committed version 3, When: node A writes back the version 2 it read before, Then: the write is rejected and A does not keep it")
+    void staleWriteRejected() {
+        nodeB.publishAfterCommit(1, 3L);
+
+        Optional<PassengerDTO> stale = read(nearCacheA, nodeA, id -> Optional.of(passenger("old", 2)));
+        Optional<PassengerDTO> fresh = nodeB.get(1, id -> Optional.of(passenger("new", 3)));
+
+        assertThat(stale).map(PassengerDTO::name).contains("old");
+        assertThat(nodeA.getStaleWriteCount()).isEqualTo(1);
+        assertThat(fresh).map(PassengerDTO::name).contains("new");
+        assertThat(read(nearCacheA, nodeA, id -> Optional.empty())).contains(passenger("new", 3));
+    }
+
+    @Test
+    @DisplayName("Given: node B deleted the passenger at version 4, When: node A reads it, Then: the miss is served from the shared tier")
+    void deletedServedAsMissing() {
+        read(nearCacheA, nodeA, id -> Optional.of(passenger("test", 3)));
+
+        nodeB.publishDeletedAfterCommit(1, 4L);
+
+        AtomicInteger loads = new AtomicInteger();
+        Optional<PassengerDTO> passengerDTO = read(nearCacheA, nodeA, id -> {
+            loads.incrementAndGet();
+            return Optional.of(passenger("test", 3));
+        });
+        assertThat(passengerDTO).isEmpty();
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Given: both near-caches hold version 1, When: node A publishes version 2, Then: both nodes reload")
+    void invalidationBroadcast() {
+        read(nearCacheA, nodeA, id -> Optional.of(passenger("old", 1)));
+        read(nearCacheB, nodeB, id -> Optional.of(passenger("old", 1)));
+
+        nodeA.publishAfterCommit(1, 2L);
+
+        assertThat(read(nearCacheA, nodeA, id -> Optional.of(passenger("new", 2)))).map(PassengerDTO::name).contains("new");
+        assertThat(read(nearCacheB, nodeB, id -> Optional.of(passenger("new", 2)))).map(PassengerDTO::name).contains("new");
+        assertThat(nodeB.getInvalidationCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: a missing passenger cached by node A, When: node B creates it, Then: the cached miss is replaced")
+    void negativeEntryReplacedByCreate() {
+        read(nearCacheA, nodeA, id -> Optional.empty());
+        assertThat(read(nearCacheB, nodeB, id -> Optional.of(passenger("test", 0)))).isEmpty();
+
+        nodeB.publishAfterCommit(1, 0L);
+
+        assertThat(read(nearCacheA, nodeA, id -> Optional.of(passenger("test", 0)))).contains(passenger("test", 0));
+    }
+
+    @Test
+    @DisplayName("Given: hot ids recorded by two nodes, When: hottestIds, Then: ids ranked by combined score")
+    void hottestIds() {
+        nodeA.recordHotIds(List.of(1, 2, 3));
+        nodeB.recordHotIds(List.of(2, 4));
+
+        assertThat(nodeA.hottestIds(2)).containsExactly(2, 1);
+    }
+}
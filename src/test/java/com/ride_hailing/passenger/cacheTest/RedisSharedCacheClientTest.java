@@ -0,0 +1,139 @@
+package com.ride_hailing.passenger.cacheTest;
+
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.cache.PassengerSharedCache;
+import com.ride_hailing.passenger.cache.RedisSharedCacheClient;
+import com.ride_hailing.passenger.cache.SharedCacheClient;
+import com.ride_hailing.passenger.cache.SharedCacheClient.VersionedValue;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Two clients on separate connections to one embedded Redis server, as two nodes would have
+class RedisSharedCacheClientTest {
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private static RedisServer redisServer;
+    private static String uri;
+
+    private final RedisSharedCacheClient clientA = new RedisSharedCacheClient(uri, 1000);
+    private final RedisSharedCacheClient clientB = new RedisSharedCacheClient(uri, 1000);
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        uri = "redis://localhost:" + port;
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @AfterEach
+    void close() {
+        clientA.close();
+        clientB.close();
+    }
+
+    private static VersionedValue value(long version, String value) {
+        return new VersionedValue(version, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(VersionedValue value) {
+        return value.value() == null ? null : new String(value.value(), StandardCharsets.UTF_8);
+    }
+
+    private static PassengerSharedCache node(SharedCacheClient client, PassengerCache nearCache) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("sharedCacheClient", client));
+        PassengerSharedCache sharedCache = new PassengerSharedCache(beanFactory.getBeanProvider(SharedCacheClient.class),
+                nearCache, "invalidation", 600, 30, 100);
+        sharedCache.subscribe();
+        return sharedCache;
+    }
+
+    private static PassengerDTO passenger(String name, long version) {
+        return MockPassenger.getPassengerDTO(7, name, "test@email.com").toBuilder()
+                .version(version)
+                .updatedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Given: version 2 stored by node A, When: node B writes version 1, then a marker and a value at version 3, Then: only newer writes win")
+    void setIfNewer() {
+        assertThat(clientA.setIfNewer("set-if-newer", value(2, "two"), TTL)).isTrue();
+
+        assertThat(clientB.setIfNewer("set-if-newer", value(1, "one"), TTL)).isFalse();
+        assertThat(clientB.setIfNewer("set-if-newer", value(3, null), TTL)).isTrue();
+        assertThat(text(clientA.get("set-if-newer"))).isNull();
+        assertThat(clientB.setIfNewer("set-if-newer", value(3, "three"), TTL)).isTrue();
+        assertThat(clientB.setIfNewer("set-if-newer", value(3, "again"), TTL)).isFalse();
+
+        VersionedValue stored = clientA.get("set-if-newer");
+        assertThat(stored.version()).isEqualTo(3);
+        assertThat(text(stored)).isEqualTo("three");
+    }
+
+    @Test
+    @DisplayName("Given: two of three keys stored, When: getAll, Then: only the stored keys are returned")
+    void getAll() {
+        clientA.setIfNewer("get-all-1", value(1, "one"), TTL);
+        clientA.setIfNewer("get-all-2", value(-1, ""), TTL);
+
+        Map<String, VersionedValue> found = clientB.getAll(List.of("get-all-1", "get-all-2", "get-all-3"));
+
+        assertThat(found).containsOnlyKeys("get-all-1", "get-all-2");
+        assertThat(text(found.get("get-all-1"))).isEqualTo("one");
+        assertThat(text(found.get("get-all-2"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given: both near-caches hold version 1, When: node A publishes version 2, Then: node B drops its copy")
+    void invalidationAcrossNodes() {
+        PassengerCache nearCacheA = new PassengerCache(100, 600, 30);
+        PassengerCache nearCacheB = new PassengerCache(100, 600, 30);
+        PassengerSharedCache nodeA = node(clientA, nearCacheA);
+        PassengerSharedCache nodeB = node(clientB, nearCacheB);
+        nearCacheA.get(7, id -> nodeA.get(id, dbId -> Optional.of(passenger("old", 1))));
+        nearCacheB.get(7, id -> nodeB.get(id, dbId -> Optional.of(passenger("old", 1))));
+
+        nodeA.publishAfterCommit(7, 2L);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> nodeB.getInvalidationCount() == 1);
+        Optional<PassengerDTO> reloaded = nearCacheB.get(7, id -> nodeB.get(id, dbId -> Optional.of(passenger("new", 2))));
+        assertThat(reloaded).map(PassengerDTO::name).contains("new");
+    }
+
+    @Test
+    @DisplayName("Given: scores from two nodes over the size limit, When: topMembers, Then: ranked by combined score and trimmed")
+    void scores() {
+        clientA.incrementScores("scores", Map.of("1", 1.0, "2", 1.0, "3", 1.0), 3);
+        clientB.incrementScores("scores", Map.of("2", 2.0, "4", 1.5), 3);
+
+        assertThat(clientA.topMembers("scores", 10)).containsExactly("2", "4", "3");
+    }
+}
@@ -0,0 +1,34 @@
+package com.ride_hailing.passenger.configTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the real servlet filter chain: the order against Boot's observation filter only shows there
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "passenger.scheduling.enabled=false",
+        "passenger.admission.client-rate=0.01",
+        "passenger.admission.client-burst=1"})
+class AdmissionControlConfigTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Given: a client over its rate, When: a request is rejected with 429, Then: it is still counted in http.server.requests")
+    void rejectedRequestsAreObserved() {
+        assertThat(restTemplate.getForEntity("/api/passenger/1", String.class).getStatusCode().value()).isEqualTo(200);
+        assertThat(restTemplate.getForEntity("/api/passenger/1", String.class).getStatusCode().value()).isEqualTo(429);
+
+        Timer rejected = meterRegistry.find("http.server.requests").tag("status", "429").timer();
+        assertThat(rejected).isNotNull();
+        assertThat(rejected.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,157 @@
+package com.ride_hailing.passenger.configTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ride_hailing.passenger.config.AdaptiveConcurrencyLimit;
+import com.ride_hailing.passenger.config.AdmissionControl;
+import com.ride_hailing.passenger.config.AdmissionControlFilter;
+import com.ride_hailing.passenger.config.TokenBucket;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AdmissionControlFilterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    static AdmissionControl admissionControl(int maxConcurrency) {
+        return new AdmissionControl("X-Client-Id", 10, 20, 1000,
+                10, 20, 5, 2, 50, 400, 1, maxConcurrency, 0.5, 100, 100);
+    }
+
+    private static MockHttpServletResponse call(AdmissionControlFilter filter, String client, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        return call(filter, client, request);
+    }
+
+    private static MockHttpServletResponse call(AdmissionControlFilter filter, String client,
+                                                MockHttpServletRequest request) throws Exception {
+        request.addHeader("X-Client-Id", client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest remote(String remoteAddress, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Given: a bucket of 20 tokens at 10 per second, When: tryAcquire, Then: the burst passes and the wait follows the rate")
+    void tokenBucket() {
+        TokenBucket bucket = new TokenBucket(10, 20, 0);
+
+        assertThat(bucket.tryAcquire(15, 0)).isZero();
+        assertThat(bucket.tryAcquire(5, 0)).isZero();
+        assertThat(bucket.tryAcquire(3, 0)).isEqualTo(3 * SECOND / 10);
+        assertThat(bucket.tryAcquire(3, 3 * SECOND / 10)).isZero();
+        assertThat(bucket.isFull(2 * SECOND)).isFalse();
+        assertThat(bucket.isFull(3 * SECOND)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given: a client that spent its burst on /all, When: filter, Then: 429 with Retry-After and no further chain call")
+    void rateLimitsByCost() throws Exception {
+        AdmissionControl admissionControl = admissionControl(100);
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ObjectMapper(), admissionControl);
+
+        assertThat(call(filter, "dispatch", "/api/passenger/all").getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = call(filter, "dispatch", "/api/passenger/all");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(rejected.getContentAsString()).contains("Rate limit exceeded");
+
+        assertThat(call(filter, "other", "/api/passenger/1").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "other", "/actuator/health").getStatus()).isEqualTo(200);
+        assertThat(admissionControl.getRateLimitedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: no trusted client header, When: filter, Then: buckets follow the remote address whatever X-Client-Id says")
+    void keysOnRemoteAddress() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ObjectMapper(),
+                new AdmissionControl("", 10, 20, 1000, 10, 20, 5, 2, 50, 400, 1, 100, 0.5, 100, 100));
+
+        assertThat(call(filter, "a", remote("10.0.0.1", "/api/passenger/all")).getStatus()).isEqualTo(200);
+        assertThat(call(filter, "b", remote("10.0.0.1", "/api/passenger/all")).getStatus()).isEqualTo(429);
+        assertThat(call(filter, "b", remote("10.0.0.2", "/api/passenger/all")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Given: the client map is full and no scheduled sweep, When: a new client calls, Then: it shares the overflow bucket until a full bucket can be evicted")
+    void overflowUntilSweep() throws Exception {
+        AdmissionControl admissionControl = new AdmissionControl("X-Client-Id", 10, 20, 1,
+                10, 20, 5, 2, 50, 400, 1, 100, 0.5, 100, 100);
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ObjectMapper(), admissionControl);
+
+        assertThat(call(filter, "a", "/api/passenger/1").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "b", "/api/passenger/all").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "c", "/api/passenger/all").getStatus()).isEqualTo(429);
+
+        Thread.sleep(2100);
+        // c's call evicts the refilled buckets and takes its own, so d does not share what c spent
+        assertThat(call(filter, "c", "/api/passenger/all").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "d", "/api/passenger/all").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Given: a long id list, When: filter, Then: it costs one token per 50 ids")
+    void idListCost() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ObjectMapper(), admissionControl(100));
+        String ids = "1,".repeat(499) + "1";
+
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/passenger");
+        first.addParameter("id", ids);
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/api/passenger");
+        second.addParameter("id", ids);
+
+        assertThat(call(filter, "dispatch", first).getStatus()).isEqualTo(200);
+        assertThat(call(filter, "dispatch", second).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Given: the concurrency limit is reached, When: filter, Then: 503 with Retry-After before the chain runs")
+    void shedsOverLimit() throws Exception {
+        AdmissionControl admissionControl = admissionControl(1);
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ObjectMapper(), admissionControl);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/passenger/1");
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            nested[0] = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/passenger/2"), nested[0], chain);
+        });
+
+        assertThat(nested[0].getStatus()).isEqualTo(503);
+        assertThat(nested[0].getHeader("Retry-After")).isEqualTo("1");
+        verify(chain, never()).doFilter(any(), any());
+        assertThat(admissionControl.getShedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: latency above the target, When: a window ends, Then: the limit shrinks, and grows back once latency recovers")
+    void adaptsToLatency() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 10, 0.5, 100, 1000, 0);
+
+        assertThat(limit.tryAcquire(false)).isTrue();
+        limit.release(500, true, 1000);
+        assertThat(limit.getLimit()).isEqualTo(9);
+
+        assertThat(limit.tryAcquire(false)).isTrue();
+        limit.release(50, true, 2000);
+        assertThat(limit.getLimit()).isEqualTo(10);
+        assertThat(limit.getInFlight()).isZero();
+    }
+}
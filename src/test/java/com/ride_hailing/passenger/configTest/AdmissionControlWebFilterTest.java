@@ -0,0 +1,61 @@
+package com.ride_hailing.passenger.configTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ride_hailing.passenger.config.AdmissionControl;
+import com.ride_hailing.passenger.config.AdmissionControlWebFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlWebFilterTest {
+    private static MockServerWebExchange exchange(String client, String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri).header("X-Client-Id", client));
+    }
+
+    @Test
+    @DisplayName("Given: a client that spent its burst on /all, When: filter, Then: 429 with Retry-After and no further chain call")
+    void rateLimitsByCost() {
+        AdmissionControl admissionControl = AdmissionControlFilterTest.admissionControl(100);
+        AdmissionControlWebFilter filter = new AdmissionControlWebFilter(new ObjectMapper(), admissionControl);
+        AtomicInteger calls = new AtomicInteger();
+        WebFilterChain chain = exchange -> Mono.fromRunnable(calls::incrementAndGet);
+
+        filter.filter(exchange("dispatch", "/api/passenger/all"), chain).block();
+        MockServerWebExchange rejected = exchange("dispatch", "/api/passenger/all");
+        filter.filter(rejected, chain).block();
+
+        assertThat(calls).hasValue(1);
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("2");
+        assertThat(rejected.getResponse().getBodyAsString().block()).contains("Rate limit exceeded");
+        assertThat(admissionControl.getRateLimitedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: the only slot held by a response still streaming, When: filter, Then: 503 until that response completes")
+    void holdsSlotUntilResponseCompletes() {
+        AdmissionControl admissionControl = AdmissionControlFilterTest.admissionControl(1);
+        AdmissionControlWebFilter filter = new AdmissionControlWebFilter(new ObjectMapper(), admissionControl);
+        Sinks.Empty<Void> streaming = Sinks.empty();
+
+        filter.filter(exchange("a", "/api/passenger/1"), exchange -> streaming.asMono()).subscribe();
+        MockServerWebExchange shed = exchange("b", "/api/passenger/2");
+        filter.filter(shed, exchange -> Mono.empty()).block();
+        streaming.tryEmitEmpty();
+        MockServerWebExchange admitted = exchange("b", "/api/passenger/2");
+        filter.filter(admitted, exchange -> Mono.empty()).block();
+
+        assertThat(shed.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(admitted.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(admissionControl.getShedCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ride_hailing.passenger.configTest;
+
+import com.ride_hailing.passenger.config.BodyCaptureResponseWrapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BodyCaptureResponseWrapperTest {
+
+    @Test
+    @DisplayName("Given: body larger than cap, When: written, Then: full body passes through and only the cap is captured")
+    void captureIsCapped() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        BodyCaptureResponseWrapper wrapper = new BodyCaptureResponseWrapper(response, 4);
+
+        wrapper.getOutputStream().write("[{\"passengerId\":1}]".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(response.getContentAsString()).isEqualTo("[{\"passengerId\":1}]");
+        assertThat(new String(wrapper.getCapturedBody(), StandardCharsets.UTF_8)).isEqualTo("[{\"p");
+        assertThat(wrapper.getBodyLength()).isEqualTo(19);
+    }
+
+    @Test
+    @DisplayName("Given: body written through writer, When: flushWriter, Then: body reaches response and is captured")
+    void captureWriter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding("UTF-8");
+        BodyCaptureResponseWrapper wrapper = new BodyCaptureResponseWrapper(response, 1024);
+
+        wrapper.getWriter().write("Passenger with ID 1 successfully deleted.");
+        wrapper.flushWriter();
+
+        assertThat(response.getContentAsString()).isEqualTo("Passenger with ID 1 successfully deleted.");
+        assertThat(new String(wrapper.getCapturedBody(), StandardCharsets.UTF_8))
+                .isEqualTo("Passenger with ID 1 successfully deleted.");
+    }
+
+    @Test
+    @DisplayName("Given: zero cap, When: written, Then: nothing is captured")
+    void captureDisabled() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        BodyCaptureResponseWrapper wrapper = new BodyCaptureResponseWrapper(response, 0);
+
+        wrapper.getOutputStream().write(new byte[]{1, 2, 3});
+
+        assertThat(wrapper.getCapturedBody()).isEmpty();
+        assertThat(response.getContentAsByteArray()).containsExactly(1, 2, 3);
+    }
+}
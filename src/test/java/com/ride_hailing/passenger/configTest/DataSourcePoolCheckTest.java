@@ -0,0 +1,53 @@
+package com.ride_hailing.passenger.configTest;
+
+import com.ride_hailing.passenger.config.DataSourcePoolCheck;
+import com.ride_hailing.passenger.config.DataSourcePoolSizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourcePoolCheckTest {
+
+    @Test
+    @DisplayName("Given: auto or explicit setting, When: poolSize, Then: cores * 2 + 1 or the number")
+    void poolSize() {
+        assertThat(DataSourcePoolSizer.poolSize("auto", 8)).isEqualTo(17);
+        assertThat(DataSourcePoolSizer.poolSize("12", 8)).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("Given: threads fit the pool, When: warnings, Then: none")
+    void fittingPool() {
+        assertThat(DataSourcePoolCheck.warnings(17, 48, 4, 3000, 4, false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given: many more threads than connections, When: warnings, Then: warn about waiting for connections")
+    void tooManyThreads() {
+        assertThat(DataSourcePoolCheck.warnings(10, 200, 4, 30000, 4, false))
+                .singleElement().asString().contains("205 request and worker threads share 10 connections");
+    }
+
+    @Test
+    @DisplayName("Given: more connections than threads, When: warnings, Then: warn about idle connections")
+    void oversizedPool() {
+        assertThat(DataSourcePoolCheck.warnings(50, 20, 4, 3000, 4, false))
+                .singleElement().asString().contains("larger than the 25 threads");
+    }
+
+    @Test
+    @DisplayName("Given: open-in-view and more request threads than connections, When: warnings, Then: warn about open-in-view")
+    void openInView() {
+        assertThat(DataSourcePoolCheck.warnings(17, 48, 4, 3000, 4, true))
+                .singleElement().asString().contains("open-in-view");
+    }
+
+    @Test
+    @DisplayName("Given: virtual threads, When: warnings, Then: only a long connection timeout is reported")
+    void virtualThreads() {
+        assertThat(DataSourcePoolCheck.warnings(20, -1, 4, 2000, 4, true)).isEmpty();
+        assertThat(DataSourcePoolCheck.warnings(20, -1, 4, 30000, 4, true))
+                .singleElement().asString().contains("unbounded");
+    }
+}
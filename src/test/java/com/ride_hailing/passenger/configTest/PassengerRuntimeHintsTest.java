@@ -0,0 +1,31 @@
+package com.ride_hailing.passenger.configTest;
+
+import com.ride_hailing.passenger.config.PassengerRuntimeHints;
+import com.ride_hailing.passenger.dto.PassengerChangeEventDTO;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.exception.ErrorMessage;
+import com.ride_hailing.passenger.model.Passenger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassengerRuntimeHintsTest {
+
+    @Test
+    @DisplayName("Given: the registrar, When: registerHints, Then: Jackson-bound records and the entity are reflectable")
+    void registersHints() throws NoSuchMethodException {
+        RuntimeHints hints = new RuntimeHints();
+        new PassengerRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(PassengerDTO.class.getMethod("email"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(PassengerChangeEventDTO.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(ErrorMessage.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Passenger.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ride_hailing.passenger.configTest;
+
+import com.ride_hailing.passenger.config.ReadYourWritesFilter;
+import com.ride_hailing.passenger.config.ReplicaRouting;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(5, "secret");
+
+    private boolean pinned(ReadYourWritesFilter filter, MockHttpServletRequest request) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> pinned.set(ReplicaRouting.isPinnedToPrimary()));
+        return pinned.get();
+    }
+
+    private static MockHttpServletRequest read(String primaryUntil) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/passenger/1");
+        request.addHeader(ReadYourWritesFilter.PRIMARY_UNTIL_HEADER, primaryUntil);
+        return request;
+    }
+
+    private String write() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/passenger/1"), response, (req, res) -> {
+        });
+        return response.getHeader(ReadYourWritesFilter.PRIMARY_UNTIL_HEADER);
+    }
+
+    @Test
+    @DisplayName("Given: the pin issued by a write, When: a read echoes it as header or cookie, Then: the read is pinned to the primary")
+    void honoursIssuedPin() throws Exception {
+        String pin = write();
+        MockHttpServletRequest withCookie = new MockHttpServletRequest("GET", "/api/passenger/1");
+        withCookie.setCookies(new Cookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE, pin));
+
+        assertThat(pinned(filter, read(pin))).isTrue();
+        assertThat(pinned(filter, withCookie)).isTrue();
+        assertThat(pinned(filter, new MockHttpServletRequest("GET", "/api/passenger/1"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given: a far-future or re-signed pin, When: a read sends it, Then: the read is not pinned")
+    void ignoresForgedPin() throws Exception {
+        String pin = write();
+        String signature = pin.substring(pin.indexOf('.'));
+
+        assertThat(pinned(filter, read(String.valueOf(Long.MAX_VALUE)))).isFalse();
+        assertThat(pinned(filter, read(Long.MAX_VALUE + signature))).isFalse();
+        assertThat(pinned(filter, read((System.currentTimeMillis() + 4000) + signature))).isFalse();
+        assertThat(pinned(new ReadYourWritesFilter(5, "other"), read(pin))).isFalse();
+    }
+}
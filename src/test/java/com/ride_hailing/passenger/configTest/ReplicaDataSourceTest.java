@@ -0,0 +1,128 @@
+package com.ride_hailing.passenger.configTest;
+
+import com.ride_hailing.passenger.config.AsyncConfig;
+import com.ride_hailing.passenger.config.ReplicaDataSource;
+import com.ride_hailing.passenger.config.ReplicaRouting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaDataSourceTest {
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    private final DataSource replica2 = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+
+    private ReplicaDataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+        replicaDataSource = new ReplicaDataSource(primary, List.of(replica1, replica2), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Given: two healthy replicas, When: getConnection, Then: replicas are used in turn")
+    void roundRobin() throws SQLException {
+        assertThat(List.of(replicaDataSource.getConnection(), replicaDataSource.getConnection(),
+                replicaDataSource.getConnection(), replicaDataSource.getConnection()))
+                .containsExactly(replica1Connection, replica2Connection, replica1Connection, replica2Connection);
+    }
+
+    @Test
+    @DisplayName("Given: a replica refuses connections, When: getConnection, Then: it is ejected and the other replica serves")
+    void ejectsFailingReplica() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThat(replicaDataSource.getConnection()).isSameAs(replica2Connection);
+        assertThat(replicaDataSource.getConnection()).isSameAs(replica2Connection);
+        assertThat(replicaDataSource.getConnection()).isSameAs(replica2Connection);
+        assertThat(replicaDataSource.healthyReplicas()).isEqualTo(1);
+        verify(replica1, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Given: every replica fails, When: getConnection, Then: the primary serves")
+    void fallsBackToPrimary() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("down"));
+        when(replica2.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThat(replicaDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(replicaDataSource.healthyReplicas()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given: an ejected replica that recovers, When: checkHealth, Then: it is readmitted")
+    void readmitsAfterHealthCheck() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("down")).thenReturn(replica1Connection);
+        when(replica1Connection.isValid(1)).thenReturn(true);
+        when(replica2Connection.isValid(1)).thenReturn(true);
+        replicaDataSource.getConnection();
+
+        replicaDataSource.checkHealth();
+
+        assertThat(replicaDataSource.healthyReplicas()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given: the thread is pinned by read-your-writes, When: getConnection, Then: the primary serves")
+    void pinnedToPrimary() {
+        assertThat(ReplicaRouting.onPrimary(() -> {
+            try {
+                return replicaDataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        })).isSameAs(primaryConnection);
+        assertThat(ReplicaRouting.isPinnedToPrimary()).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Given: a pinned request thread, When: the application task executor runs its async work, Then: the pin follows it")
+    void applicationTaskExecutorCarriesPin(boolean virtualThreads) throws Exception {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        AsyncTaskExecutor executor = new AsyncConfig().applicationTaskExecutor(
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads)),
+                beanFactory.getBeanProvider(ThreadPoolTaskExecutorBuilder.class),
+                beanFactory.getBeanProvider(SimpleAsyncTaskExecutorBuilder.class));
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.initialize();
+        }
+
+        try {
+            CompletableFuture<Boolean> pinned = ReplicaRouting.onPrimary(
+                    () -> CompletableFuture.supplyAsync(ReplicaRouting::isPinnedToPrimary, executor));
+            assertThat(pinned.get()).isTrue();
+        } finally {
+            if (executor instanceof ThreadPoolTaskExecutor pool) {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -1,10 +1,24 @@
 package com.ride_hailing.passenger.controllerTest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.ride_hailing.passenger.config.PassengerColumnarHttpMessageConverter;
 import com.ride_hailing.passenger.controller.PassengerController;
 import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerPageDTO;
+import com.ride_hailing.passenger.dto.PassengerSearchPageDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncPageDTO;
+import com.ride_hailing.passenger.dto.BulkCreateResultDTO;
+import com.ride_hailing.passenger.dto.BulkCreateStatus;
+import com.ride_hailing.passenger.exception.ConflictException;
+import com.ride_hailing.passenger.exception.PreconditionFailedException;
+import com.ride_hailing.passenger.exception.NotFoundReporter;
+import com.ride_hailing.passenger.metrics.PassengerMetrics;
 import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.service.PassengerBulkService;
 import com.ride_hailing.passenger.service.PassengerService;
+import com.ride_hailing.passenger.util.PassengerColumnar;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -13,19 +27,31 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(PassengerController.class)
+// Admission control is covered by AdmissionControlFilterTest; here every request comes from one client and would drain its bucket
+@WebMvcTest(value = PassengerController.class, properties = "passenger.admission.enabled=false")
+@Import(NotFoundReporter.class)
 class PassengerControllerTest {
     private final static String PASSENGER_URL = "/api/passenger";
 
@@ -38,6 +64,12 @@ class PassengerControllerTest {
     @MockBean
     private PassengerService passengerService;
 
+    @MockBean
+    private PassengerBulkService passengerBulkService;
+
+    @MockBean
+    private PassengerMetrics passengerMetrics;
+
     private static Stream<Arguments> invalidParam() {
         return Stream.of(
                 Arguments.of("blank request param", "?id= "),
@@ -61,6 +93,15 @@ class PassengerControllerTest {
         );
     }
 
+    private static Stream<Arguments> bulkCreateBody() {
+        return Stream.of(
+                Arguments.of("json array", MediaType.APPLICATION_JSON_VALUE,
+                        "[{\"name\":\"a\",\"email\":\"a@email.com\"},{\"name\":\"b\",\"email\":\"b@email.com\"}]"),
+                Arguments.of("ndjson", "application/x-ndjson",
+                        "{\"name\":\"a\",\"email\":\"a@email.com\"}\n{\"name\":\"b\",\"email\":\"b@email.com\"}\n")
+        );
+    }
+
     @Test
     @DisplayName("Given: passengerId found, When: GET /api/passenger/1, Then: return 200 status with passengerDTO")
     void getPassengerById() throws Exception {
@@ -75,6 +116,35 @@ class PassengerControllerTest {
         verify(passengerService).getPassengerById(1);
     }
 
+    @Test
+    @DisplayName("Given: versioned passenger, When: GET /api/passenger/1, Then: return ETag and Last-Modified")
+    void getPassengerByIdValidators() throws Exception {
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(1, "test", "test@email.com").toBuilder()
+                .version(2L)
+                .updatedAt(Instant.parse("2024-06-01T10:15:30Z"))
+                .build();
+        when(passengerService.getPassengerById(anyInt())).thenReturn(Optional.of(passengerDTO));
+
+        mockMvc.perform(get(PASSENGER_URL + "/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-2\""))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Sat, 01 Jun 2024 10:15:30 GMT"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Given: If-None-Match with current ETag, When: GET /api/passenger/1, Then: return 304 without body")
+    void getPassengerByIdNotModified() throws Exception {
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(1, "test", "test@email.com").toBuilder()
+                .version(2L)
+                .build();
+        when(passengerService.getPassengerById(anyInt())).thenReturn(Optional.of(passengerDTO));
+
+        mockMvc.perform(get(PASSENGER_URL + "/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, "\"1-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     @DisplayName("Given: passengerId not found, When: GET /api/passenger/999, Then: return 404 status not found")
     void getPassengerByIdNotFound() throws Exception {
@@ -83,6 +153,26 @@ class PassengerControllerTest {
                 .andExpect(jsonPath("$.message").value("Passenger Id With " + 999 + " not found"));
 
         verify(passengerService).getPassengerById(999);
+        verify(passengerMetrics).recordNotFound();
+    }
+
+    @Test
+    @DisplayName("Given: email found, When: GET /api/passenger/by-email, Then: return 200 status with passengerDTO")
+    void getPassengerByEmail() throws Exception {
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(1, "test", "test@email.com");
+        when(passengerService.getPassengerByEmail("Test@Email.com")).thenReturn(Optional.of(passengerDTO));
+
+        mockMvc.perform(get(PASSENGER_URL + "/by-email").param("email", "Test@Email.com"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(passengerDTO)));
+    }
+
+    @Test
+    @DisplayName("Given: email not found, When: GET /api/passenger/by-email, Then: return 404 status not found")
+    void getPassengerByEmailNotFound() throws Exception {
+        mockMvc.perform(get(PASSENGER_URL + "/by-email").param("email", "none@email.com"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Passenger with email none@email.com not found"));
     }
 
     @Test
@@ -133,6 +223,35 @@ class PassengerControllerTest {
                 .andExpect(header().string("X-MISSING-SET", "999"));
 
         verify(passengerService).getPassengerByIds(List.of(1, 999));
+        verify(passengerMetrics).recordLookup(2, 1);
+    }
+
+    @Test
+    @DisplayName("Given: passengerIds in body, When: POST /api/passenger/lookup, Then: return 200 with header X-MISSING-SET")
+    void lookupPassengerByIds() throws Exception {
+        List<PassengerDTO> passengerDTO = List.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
+        when(passengerService.getPassengerByIds(anyList()))
+                .thenReturn(passengerDTO);
+
+        mockMvc.perform(post(PASSENGER_URL + "/lookup")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content("[1,999,999,1000]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(passengerDTO)))
+                .andExpect(header().string("X-MISSING-SET", "999,1000"));
+
+        verify(passengerService).getPassengerByIds(List.of(1, 999, 999, 1000));
+    }
+
+    @Test
+    @DisplayName("Given: no id request param, When: GET /api/passenger, Then: return 200 with empty list")
+    void getPassengerByIdsWithoutParam() throws Exception {
+        mockMvc.perform(get(PASSENGER_URL))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"))
+                .andExpect(header().doesNotExist("X-MISSING-SET"));
+
+        verify(passengerService).getPassengerByIds(List.of());
     }
 
     @ParameterizedTest(name = "{0}")
@@ -159,6 +278,171 @@ class PassengerControllerTest {
         verify(passengerService).getAllPassengers();
     }
 
+    @Test
+    @DisplayName("Given: Accept application/cbor, When: GET /api/passenger/all, Then: return passengers as CBOR")
+    void getAllPassengersCbor() throws Exception {
+        List<PassengerDTO> passengerDTOList = List.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
+        when(passengerService.getAllPassengers()).thenReturn(passengerDTOList);
+
+        byte[] body = mockMvc.perform(get(PASSENGER_URL + "/all").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readValue(body, PassengerDTO[].class)).containsExactlyElementsOf(passengerDTOList);
+    }
+
+    @Test
+    @DisplayName("Given: Accept application/x-passenger-columnar, When: GET /api/passenger?id=1&id=2, Then: return columnar body")
+    void getPassengerByIdsColumnar() throws Exception {
+        List<PassengerDTO> passengerDTOList = List.of(
+                MockPassenger.getPassengerDTO(1, "test", "test@email.com"),
+                MockPassenger.getPassengerDTO(2, "test2", "test2@email.com"));
+        when(passengerService.getPassengerByIds(anyList())).thenReturn(passengerDTOList);
+
+        byte[] body = mockMvc.perform(get(PASSENGER_URL + "?id=1&id=2").accept(PassengerColumnarHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PassengerColumnarHttpMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(PassengerColumnar.read(new ByteArrayInputStream(body))).isEqualTo(passengerDTOList);
+    }
+
+    @Test
+    @DisplayName("Given: the JSON ETag of a list, When: GET /api/passenger?id=1 as CBOR with If-None-Match, Then: 200 with its own tag and Vary: Accept")
+    void getPassengerByIdsETagPerMediaType() throws Exception {
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(1, "test", "test@email.com").toBuilder()
+                .version(2L)
+                .build();
+        when(passengerService.getPassengerByIds(anyList())).thenReturn(List.of(passengerDTO));
+
+        String jsonTag = mockMvc.perform(get(PASSENGER_URL + "?id=1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(PASSENGER_URL + "?id=1").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, jsonTag))
+                .andExpect(status().isNotModified());
+        String cborTag = mockMvc.perform(get(PASSENGER_URL + "?id=1").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonTag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(cborTag).isNotNull().isNotEqualTo(jsonTag);
+    }
+
+    @Test
+    @DisplayName("Given: Accept application/x-ndjson, When: GET /api/passenger/all, Then: stream one passenger per line")
+    @SuppressWarnings("unchecked")
+    void streamAllPassengers() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PassengerDTO> consumer = invocation.getArgument(0);
+            consumer.accept(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
+            consumer.accept(MockPassenger.getPassengerDTO(2, "test2", "test2@email.com"));
+            return null;
+        }).when(passengerService).streamAllPassengers(any(Consumer.class));
+
+        MvcResult mvcResult = mockMvc.perform(get(PASSENGER_URL + "/all").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"passengerId\":1,\"name\":\"test\",\"email\":\"test@email.com\"}\n"
+                                + "{\"passengerId\":2,\"name\":\"test2\",\"email\":\"test2@email.com\"}"));
+
+        verify(passengerService).streamAllPassengers(any(Consumer.class));
+        verify(passengerService, never()).getAllPassengers();
+    }
+
+    @Test
+    @DisplayName("Given: after and limit, When: GET /api/passenger/page, Then: return 200 with page and next cursor")
+    void getPassengerPage() throws Exception {
+        PassengerPageDTO passengerPageDTO = PassengerPageDTO.builder()
+                .passengers(List.of(MockPassenger.getPassengerDTO(6, "test", "test@email.com")))
+                .nextAfter(6)
+                .build();
+        when(passengerService.getPassengerPage(anyInt(), anyInt())).thenReturn(passengerPageDTO);
+
+        mockMvc.perform(get(PASSENGER_URL + "/page?after=5&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(passengerPageDTO)));
+
+        verify(passengerService).getPassengerPage(5, 1);
+    }
+
+    @Test
+    @DisplayName("Given: limit above maximum, When: GET /api/passenger/page, Then: limit is capped")
+    void getPassengerPageCapsLimit() throws Exception {
+        mockMvc.perform(get(PASSENGER_URL + "/page?limit=100000"))
+                .andExpect(status().isOk());
+
+        verify(passengerService).getPassengerPage(0, 1000);
+    }
+
+    @Test
+    @DisplayName("Given: query, When: GET /api/passenger/search, Then: return 200 with ranked page and next offset")
+    void searchPassengers() throws Exception {
+        PassengerSearchPageDTO passengerSearchPageDTO = PassengerSearchPageDTO.builder()
+                .passengers(List.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com")))
+                .nextOffset(20)
+                .build();
+        when(passengerService.searchPassengers(anyString(), anyInt(), anyInt())).thenReturn(passengerSearchPageDTO);
+
+        mockMvc.perform(get(PASSENGER_URL + "/search").param("q", "te"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(passengerSearchPageDTO)));
+
+        verify(passengerService).searchPassengers("te", 0, 20);
+    }
+
+    @Test
+    @DisplayName("Given: page at the search depth limit, When: GET /api/passenger/search, Then: size is clamped and no next offset")
+    void searchPassengersDepthLimit() throws Exception {
+        when(passengerService.searchPassengers(anyString(), anyInt(), anyInt())).thenReturn(PassengerSearchPageDTO.builder()
+                .passengers(List.of())
+                .nextOffset(1000)
+                .build());
+
+        mockMvc.perform(get(PASSENGER_URL + "/search").param("q", "te").param("offset", "990").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextOffset").doesNotExist());
+
+        verify(passengerService).searchPassengers("te", 990, 10);
+    }
+
+    @Test
+    @DisplayName("Given: blank query, When: GET /api/passenger/search, Then: return 400")
+    void searchPassengersBlankQuery() throws Exception {
+        mockMvc.perform(get(PASSENGER_URL + "/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(passengerService);
+    }
+
+    @Test
+    @DisplayName("Given: since token, When: GET /api/passenger/changes, Then: return 200 with changes and next token")
+    void getChangesSince() throws Exception {
+        PassengerSyncPageDTO passengerSyncPageDTO = PassengerSyncPageDTO.builder()
+                .changes(List.of(
+                        PassengerSyncDTO.builder().changeSeq(11).passengerId(1).name("test").email("test@email.com").version(1L).build(),
+                        PassengerSyncDTO.builder().changeSeq(12).passengerId(2).deleted(true).build()))
+                .nextSince(12)
+                .hasMore(false)
+                .build();
+        when(passengerService.getChangesSince(anyLong(), anyInt())).thenReturn(passengerSyncPageDTO);
+
+        mockMvc.perform(get(PASSENGER_URL + "/changes?since=10&limit=5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[1].deleted").value(true))
+                .andExpect(jsonPath("$.changes[1].name").doesNotExist())
+                .andExpect(content().json(objectMapper.writeValueAsString(passengerSyncPageDTO)));
+
+        verify(passengerService).getChangesSince(10, 1000);
+    }
+
     @Test
     @DisplayName("Given: passenger, When: POST /api/passenger, Then: return 201 created")
     void createPassenger() throws Exception {
@@ -174,6 +458,19 @@ class PassengerControllerTest {
         verify(passengerService).createPassenger(any(PassengerDTO.class));
     }
 
+    @Test
+    @DisplayName("Given: email already used, When: POST /api/passenger, Then: return 409 conflict")
+    void createPassengerConflict() throws Exception {
+        when(passengerService.createPassenger(any(PassengerDTO.class)))
+                .thenThrow(new ConflictException("Passenger with email test@email.com already exists"));
+
+        mockMvc.perform(post(PASSENGER_URL)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(MockPassenger.getPassengerDTO())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Passenger with email test@email.com already exists"));
+    }
+
     @ParameterizedTest(name = "{0}")
     @MethodSource("emptyCreateValue")
     void createPassengerWithEmpty(String scenario, PassengerDTO passengerDTO, String expectedMessage) throws Exception {
@@ -188,6 +485,41 @@ class PassengerControllerTest {
         verify(passengerService, never()).createPassenger(any(PassengerDTO.class));
     }
 
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("bulkCreateBody")
+    @SuppressWarnings("unchecked")
+    void bulkCreatePassengers(String scenario, String contentType, String body) throws Exception {
+        List<PassengerDTO> received = new ArrayList<>();
+        doAnswer(invocation -> {
+            Iterator<PassengerDTO> passengers = invocation.getArgument(0);
+            Consumer<BulkCreateResultDTO> consumer = invocation.getArgument(1);
+            long index = 0;
+            while (passengers.hasNext()) {
+                received.add(passengers.next());
+                consumer.accept(BulkCreateResultDTO.builder()
+                        .index(index)
+                        .status(BulkCreateStatus.CREATED)
+                        .passengerId((int) ++index)
+                        .build());
+            }
+            return null;
+        }).when(passengerBulkService).bulkCreatePassengers(any(Iterator.class), any(Consumer.class));
+
+        MvcResult mvcResult = mockMvc.perform(post(PASSENGER_URL + "/bulk")
+                        .contentType(contentType)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"index\":0,\"status\":\"CREATED\",\"passengerId\":1}\n"
+                                + "{\"index\":1,\"status\":\"CREATED\",\"passengerId\":2}"));
+
+        assertThat(received).extracting(PassengerDTO::name).containsExactly("a", "b");
+    }
+
     @Test
     @DisplayName("Given: valid passengerId, When: PUT /api/passenger?id=1, Then: return 200 with update passengerDTO")
     void updatePassenger() throws Exception {
@@ -203,6 +535,38 @@ class PassengerControllerTest {
         verify(passengerService).updatePassenger(1, passengerDTO);
     }
 
+    @Test
+    @DisplayName("Given: If-Match, When: PUT /api/passenger/1, Then: expected version is passed to the service")
+    void updatePassengerIfMatch() throws Exception {
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(1, "test", "test@email.com");
+        when(passengerService.updatePassenger(anyInt(), any(PassengerDTO.class)))
+                .thenReturn(Optional.of(passengerDTO.toBuilder().version(4L).build()));
+
+        mockMvc.perform(put((PASSENGER_URL + "/1"))
+                        .header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(passengerDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+
+        verify(passengerService).updatePassenger(1, passengerDTO.toBuilder().version(3L).build());
+    }
+
+    @Test
+    @DisplayName("Given: stale If-Match, When: PUT /api/passenger/1, Then: return 412 precondition failed")
+    void updatePassengerPreconditionFailed() throws Exception {
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(1, "test", "test@email.com");
+        when(passengerService.updatePassenger(anyInt(), any(PassengerDTO.class)))
+                .thenThrow(new PreconditionFailedException("Passenger Id With 1 has been modified"));
+
+        mockMvc.perform(put((PASSENGER_URL + "/1"))
+                        .header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(passengerDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Passenger Id With 1 has been modified"));
+    }
+
     @Test
     @DisplayName("Given: passengerId not found, When: PUT /api/passenger?id=999, Then: return 404 with not found")
     void updatePassengerWithNotFound() throws Exception {
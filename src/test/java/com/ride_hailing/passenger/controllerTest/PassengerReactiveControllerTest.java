@@ -0,0 +1,204 @@
+package com.ride_hailing.passenger.controllerTest;
+
+import com.ride_hailing.passenger.controller.PassengerReactiveController;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.exception.ConflictException;
+import com.ride_hailing.passenger.exception.NotFoundReporter;
+import com.ride_hailing.passenger.exception.ReactiveExceptionHandler;
+import com.ride_hailing.passenger.metrics.PassengerMetrics;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.repository.PassengerReactiveRepository;
+import com.ride_hailing.passenger.service.PassengerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+// Admission control is covered by AdmissionControlWebFilterTest
+@WebFluxTest(value = PassengerReactiveController.class, properties = "passenger.admission.enabled=false")
+@Import({NotFoundReporter.class, ReactiveExceptionHandler.class})
+class PassengerReactiveControllerTest {
+    private final static String PASSENGER_URL = "/api/passenger";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private PassengerReactiveRepository passengerReactiveRepository;
+
+    @MockBean
+    private PassengerService passengerService;
+
+    @MockBean
+    private PassengerMetrics passengerMetrics;
+
+    @Test
+    @DisplayName("Given: passengerId found, When: GET /api/passenger/1, Then: return 200 status with passengerDTO and ETag")
+    void getPassengerById() {
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(1, "test", "test@email.com").toBuilder()
+                .version(2L)
+                .build();
+        when(passengerReactiveRepository.findDTOById(1)).thenReturn(Mono.just(passengerDTO));
+
+        webTestClient.get().uri(PASSENGER_URL + "/{id}", 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1-2\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("test")
+                .jsonPath("$.version").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Given: passengerId not found, When: GET /api/passenger/999, Then: return 404 with error message")
+    void getPassengerByIdNotFound() {
+        when(passengerReactiveRepository.findDTOById(999)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri(PASSENGER_URL + "/{id}", 999)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Passenger Id With 999 not found");
+
+        verify(passengerMetrics).recordNotFound();
+    }
+
+    @Test
+    @DisplayName("Given: email not found, When: GET /api/passenger/by-email, Then: return 404 status not found")
+    void getPassengerByEmailNotFound() {
+        when(passengerReactiveRepository.findDTOByEmail("missing@email.com")).thenReturn(Mono.empty());
+
+        webTestClient.get().uri(PASSENGER_URL + "/by-email?email={email}", "missing@email.com")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Passenger with email missing@email.com not found");
+    }
+
+    @Test
+    @DisplayName("Given: passengerIds one found and one not found, When: GET /api/passenger?id=1&id=999&id=1, Then: query distinct ids once and return header X-MISSING-SET and Vary: Accept")
+    void getPassengerByIdsMissing() {
+        when(passengerReactiveRepository.findAllDTOsById(anyCollection()))
+                .thenReturn(Flux.just(MockPassenger.getPassengerDTO(1, "test", "test@email.com")));
+
+        webTestClient.get().uri(PASSENGER_URL + "?id=1&id=999&id=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-MISSING-SET", "999")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].passengerId").isEqualTo(1);
+
+        verify(passengerReactiveRepository).findAllDTOsById(List.of(1, 999));
+        verify(passengerMetrics).recordLookup(3, 1);
+    }
+
+    @Test
+    @DisplayName("Given: passengers, When: GET /api/passenger/all as NDJSON, Then: stream one passenger per line")
+    void streamAllPassengers() {
+        when(passengerReactiveRepository.findAllDTOs()).thenReturn(Flux.just(
+                MockPassenger.getPassengerDTO(1, "a", "a@email.com"),
+                MockPassenger.getPassengerDTO(2, "b", "b@email.com")));
+
+        List<PassengerDTO> passengers = webTestClient.get().uri(PASSENGER_URL + "/all")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PassengerDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(passengers).extracting(PassengerDTO::passengerId).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("Given: a full page, When: GET /api/passenger/page?limit=1, Then: return nextAfter from the last passenger")
+    void getPassengerPage() {
+        when(passengerReactiveRepository.findPage(0, 1))
+                .thenReturn(Flux.just(MockPassenger.getPassengerDTO(5, "test", "test@email.com")));
+
+        webTestClient.get().uri(PASSENGER_URL + "/page?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.passengers[0].passengerId").isEqualTo(5)
+                .jsonPath("$.nextAfter").isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Given: valid passenger, When: POST /api/passenger, Then: create through the blocking service and return 201")
+    void createPassenger() {
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(null, "test", "test@email.com");
+        when(passengerService.createPassenger(any()))
+                .thenReturn(Optional.of(passengerDTO.toBuilder().passengerId(1).version(0L).build()));
+
+        webTestClient.post().uri(PASSENGER_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(passengerDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1-0\"")
+                .expectBody()
+                .jsonPath("$.passengerId").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: empty name, When: POST /api/passenger, Then: return 400 with the field errors")
+    void createPassengerInvalid() {
+        webTestClient.post().uri(PASSENGER_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(MockPassenger.getPassengerDTO(null, null, "test@email.com"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .json("{\"name\":\"Name is required\"}");
+
+        verifyNoInteractions(passengerService);
+    }
+
+    @Test
+    @DisplayName("Given: duplicate email, When: POST /api/passenger, Then: return 409 conflict")
+    void createPassengerConflict() {
+        when(passengerService.createPassenger(any()))
+                .thenThrow(new ConflictException("Passenger with email test@email.com already exists"));
+
+        webTestClient.post().uri(PASSENGER_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(MockPassenger.getPassengerDTO(null, "test", "test@email.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Passenger with email test@email.com already exists");
+    }
+
+    @Test
+    @DisplayName("Given: passengerId not found, When: DELETE /api/passenger/999, Then: return 404 without deleting")
+    void deletePassengerNotFound() {
+        when(passengerService.getPassengerById(anyInt())).thenReturn(Optional.empty());
+
+        webTestClient.delete().uri(PASSENGER_URL + "/{id}", 999)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        verify(passengerService, never()).deletePassenger(anyInt());
+    }
+}
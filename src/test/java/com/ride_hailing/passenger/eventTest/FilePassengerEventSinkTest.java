@@ -0,0 +1,49 @@
+package com.ride_hailing.passenger.eventTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ride_hailing.passenger.dto.PassengerChangeEventDTO;
+import com.ride_hailing.passenger.dto.PassengerChangeType;
+import com.ride_hailing.passenger.event.FilePassengerEventSink;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilePassengerEventSinkTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Given: two batches, When: publish, Then: one JSON line per event is appended")
+    void publish() throws Exception {
+        Path file = directory.resolve("events/passenger-events.ndjson");
+        FilePassengerEventSink sink = new FilePassengerEventSink(file, objectMapper);
+        PassengerChangeEventDTO created = PassengerChangeEventDTO.builder()
+                .eventId(1)
+                .type(PassengerChangeType.CREATED)
+                .passengerId(7)
+                .version(0L)
+                .name("test")
+                .email("test@email.com")
+                .occurredAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .build();
+        PassengerChangeEventDTO deleted = created.toBuilder().eventId(2).type(PassengerChangeType.DELETED).build();
+
+        sink.publish(List.of(created));
+        sink.publish(List.of(deleted));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(0), PassengerChangeEventDTO.class)).isEqualTo(created);
+        assertThat(objectMapper.readValue(lines.get(1), PassengerChangeEventDTO.class)).isEqualTo(deleted);
+    }
+}
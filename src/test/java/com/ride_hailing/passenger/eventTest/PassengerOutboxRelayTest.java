@@ -0,0 +1,114 @@
+package com.ride_hailing.passenger.eventTest;
+
+import com.ride_hailing.passenger.dto.PassengerChangeEventDTO;
+import com.ride_hailing.passenger.dto.PassengerChangeType;
+import com.ride_hailing.passenger.event.InMemoryPassengerEventSink;
+import com.ride_hailing.passenger.event.PassengerEventSink;
+import com.ride_hailing.passenger.event.PassengerOutboxRelay;
+import com.ride_hailing.passenger.repository.PassengerOutboxRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PassengerOutboxRelayTest {
+    private final PassengerOutboxRepository passengerOutboxRepository = mock(PassengerOutboxRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @BeforeEach
+    void claimRelay() {
+        when(passengerOutboxRepository.claimRelay(anyString(), anyLong())).thenReturn(true);
+    }
+
+    private static PassengerChangeEventDTO event(long eventId, PassengerChangeType type) {
+        return PassengerChangeEventDTO.builder()
+                .eventId(eventId)
+                .type(type)
+                .passengerId(1)
+                .version(eventId)
+                .name("test")
+                .email("test@email.com")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Given: outbox behind by more than one batch, When: relay, Then: all events published in order and deleted")
+    void relay() {
+        List<PassengerChangeEventDTO> first = List.of(event(1, PassengerChangeType.CREATED), event(2, PassengerChangeType.UPDATED));
+        List<PassengerChangeEventDTO> second = List.of(event(3, PassengerChangeType.DELETED));
+        when(passengerOutboxRepository.findBatch(2)).thenReturn(first).thenReturn(second);
+        InMemoryPassengerEventSink sink = new InMemoryPassengerEventSink(100);
+
+        new PassengerOutboxRelay(passengerOutboxRepository, sink, transactionManager, 2, 1000).relay();
+
+        assertThat(sink.getEvents()).extracting(PassengerChangeEventDTO::eventId).containsExactly(1L, 2L, 3L);
+        verify(passengerOutboxRepository).delete(first);
+        verify(passengerOutboxRepository).delete(second);
+    }
+
+    @Test
+    @DisplayName("Given: a batch to publish, When: relay, Then: the sink is called between the claim transaction and the delete transaction")
+    void relayPublishesOutsideTransaction() throws Exception {
+        List<PassengerChangeEventDTO> batch = List.of(event(1, PassengerChangeType.CREATED));
+        when(passengerOutboxRepository.findBatch(2)).thenReturn(batch);
+        PassengerEventSink sink = mock(PassengerEventSink.class);
+
+        new PassengerOutboxRelay(passengerOutboxRepository, sink, transactionManager, 2, 1000).relay();
+
+        InOrder inOrder = inOrder(transactionManager, passengerOutboxRepository, sink);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(passengerOutboxRepository).findBatch(2);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(sink).publish(batch);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(passengerOutboxRepository).delete(batch);
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Given: sink failure, When: relay, Then: events stay in the outbox")
+    void relaySinkFailure() throws Exception {
+        when(passengerOutboxRepository.findBatch(2)).thenReturn(List.of(event(1, PassengerChangeType.CREATED)));
+        PassengerEventSink sink = mock(PassengerEventSink.class);
+        doThrow(new IOException("unavailable")).when(sink).publish(anyList());
+
+        new PassengerOutboxRelay(passengerOutboxRepository, sink, transactionManager, 2, 1000).relay();
+
+        verify(passengerOutboxRepository, never()).delete(anyList());
+    }
+
+    @Test
+    @DisplayName("Given: another node holds the relay lease, When: relay, Then: nothing is read or published")
+    void relayClaimedElsewhere() throws Exception {
+        when(passengerOutboxRepository.claimRelay(anyString(), anyLong())).thenReturn(false);
+        PassengerEventSink sink = mock(PassengerEventSink.class);
+
+        new PassengerOutboxRelay(passengerOutboxRepository, sink, transactionManager, 2, 1000).relay();
+
+        verify(passengerOutboxRepository, never()).findBatch(anyInt());
+        verify(sink, never()).publish(anyList());
+    }
+
+    @Test
+    @DisplayName("Given: more events than capacity, When: publish to memory sink, Then: oldest are dropped")
+    void inMemorySinkCapacity() {
+        InMemoryPassengerEventSink sink = new InMemoryPassengerEventSink(2);
+
+        sink.publish(List.of(event(1, PassengerChangeType.CREATED), event(2, PassengerChangeType.UPDATED),
+                event(3, PassengerChangeType.DELETED)));
+
+        assertThat(sink.getEvents()).extracting(PassengerChangeEventDTO::eventId).containsExactly(2L, 3L);
+    }
+}
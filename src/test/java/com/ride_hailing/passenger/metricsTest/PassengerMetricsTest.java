@@ -0,0 +1,32 @@
+package com.ride_hailing.passenger.metricsTest;
+
+import com.ride_hailing.passenger.metrics.PassengerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassengerMetricsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PassengerMetrics passengerMetrics = new PassengerMetrics(meterRegistry);
+
+    @Test
+    @DisplayName("Given: lookups with missing ids, When: recordLookup, Then: requested and missing ids are counted")
+    void recordLookup() {
+        passengerMetrics.recordLookup(5, 2);
+        passengerMetrics.recordLookup(3, 0);
+
+        assertThat(meterRegistry.get("passenger.lookup.ids").counter().count()).isEqualTo(8);
+        assertThat(meterRegistry.get("passenger.lookup.missing").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given: not found responses, When: recordNotFound, Then: counter increases")
+    void recordNotFound() {
+        passengerMetrics.recordNotFound();
+        passengerMetrics.recordNotFound();
+
+        assertThat(meterRegistry.get("passenger.not.found").counter().count()).isEqualTo(2);
+    }
+}
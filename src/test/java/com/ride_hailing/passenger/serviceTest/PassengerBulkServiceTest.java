@@ -0,0 +1,195 @@
+package com.ride_hailing.passenger.serviceTest;
+
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.cache.PassengerSharedCache;
+import com.ride_hailing.passenger.dto.BulkCreateResultDTO;
+import com.ride_hailing.passenger.dto.BulkCreateStatus;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mapper.PassengerMapper;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.model.Passenger;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.service.PassengerBulkService;
+import com.ride_hailing.passenger.service.PassengerChangeTickets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {PassengerBulkService.class, PassengerChangeTickets.class, PassengerMapper.class, LocalValidatorFactoryBean.class})
+@TestPropertySource(properties = "passenger.bulk.batch-size=2")
+class PassengerBulkServiceTest {
+    @Autowired
+    private PassengerBulkService passengerBulkService;
+
+    @MockBean
+    private PassengerJdbcRepository passengerJdbcRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private PassengerCache passengerCache;
+
+    @MockBean
+    private PassengerSharedCache passengerSharedCache;
+
+    private void assignIds() {
+        AtomicInteger nextId = new AtomicInteger(1);
+        when(passengerJdbcRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Passenger> passengers = invocation.getArgument(0);
+            passengers.forEach(passenger -> passenger.setPassengerId(nextId.getAndIncrement()));
+            return passengers;
+        });
+    }
+
+    @Test
+    @DisplayName("Given: valid passengers, When: bulkCreatePassengers, Then: inserted in batches with one result per item")
+    void bulkCreatePassengers() {
+        assignIds();
+        List<BulkCreateResultDTO> results = new ArrayList<>();
+
+        passengerBulkService.bulkCreatePassengers(List.of(
+                MockPassenger.getPassengerDTO(),
+                MockPassenger.getPassengerDTO(),
+                MockPassenger.getPassengerDTO()).iterator(), results::add);
+
+        verify(passengerJdbcRepository, times(2)).insertAll(anyList());
+        verify(passengerCache, times(3)).invalidate(anyInt());
+        assertThat(results).extracting(BulkCreateResultDTO::status).containsOnly(BulkCreateStatus.CREATED);
+        assertThat(results).extracting(BulkCreateResultDTO::passengerId).containsExactly(1, 2, 3);
+        assertThat(results).extracting(BulkCreateResultDTO::index).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Given: one invalid passenger, When: bulkCreatePassengers, Then: invalid item reported and others inserted")
+    void bulkCreatePassengersWithInvalid() {
+        assignIds();
+        List<BulkCreateResultDTO> results = new ArrayList<>();
+
+        passengerBulkService.bulkCreatePassengers(List.of(
+                MockPassenger.getPassengerDTO(null, null, "test@email.com"),
+                MockPassenger.getPassengerDTO()).iterator(), results::add);
+
+        assertThat(results).extracting(BulkCreateResultDTO::status)
+                .containsExactly(BulkCreateStatus.INVALID, BulkCreateStatus.CREATED);
+        assertThat(results.get(0).errors()).containsEntry("name", "Name is required");
+    }
+
+    @Test
+    @DisplayName("Given: batch insert fails, When: bulkCreatePassengers, Then: every item of the batch is reported failed")
+    void bulkCreatePassengersBatchFailure() {
+        when(passengerJdbcRepository.insertAll(anyList())).thenThrow(new DataIntegrityViolationException("boom"));
+        List<BulkCreateResultDTO> results = new ArrayList<>();
+
+        passengerBulkService.bulkCreatePassengers(List.of(
+                MockPassenger.getPassengerDTO(),
+                MockPassenger.getPassengerDTO()).iterator(), results::add);
+
+        assertThat(results).extracting(BulkCreateResultDTO::status).containsOnly(BulkCreateStatus.FAILED);
+        verifyNoInteractions(passengerCache);
+    }
+
+    @Test
+    @DisplayName("Given: one email already used, When: bulkCreatePassengers, Then: only that item is reported as conflict")
+    void bulkCreatePassengersEmailConflict() {
+        DataIntegrityViolationException duplicate = new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UX_PASSENGER_EMAIL_NORMALIZED ON PUBLIC.PASSENGER(EMAIL_NORMALIZED)\"");
+        AtomicInteger nextId = new AtomicInteger(1);
+        when(passengerJdbcRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Passenger> passengers = invocation.getArgument(0);
+            if (passengers.stream().anyMatch(passenger -> passenger.getEmail().equals("used@email.com"))) {
+                throw duplicate;
+            }
+            passengers.forEach(passenger -> passenger.setPassengerId(nextId.getAndIncrement()));
+            return passengers;
+        });
+        List<BulkCreateResultDTO> results = new ArrayList<>();
+        when(passengerJdbcRepository.findTakenEmails(anyCollection())).thenReturn(Set.of("used@email.com"));
+
+        passengerBulkService.bulkCreatePassengers(List.of(
+                MockPassenger.getPassengerDTO(null, "used", "used@email.com"),
+                MockPassenger.getPassengerDTO()).iterator(), results::add);
+
+        assertThat(results).extracting(BulkCreateResultDTO::status)
+                .containsExactly(BulkCreateStatus.CONFLICT, BulkCreateStatus.CREATED);
+        assertThat(results.get(0).errors()).containsEntry("email", "Passenger with email used@email.com already exists");
+        assertThat(results.get(1).passengerId()).isEqualTo(1);
+        verify(passengerJdbcRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Given: two items with the same email in different case, When: bulkCreatePassengers, Then: the second is a conflict and the rest go in as one batch")
+    void bulkCreatePassengersDuplicateWithinBatch() {
+        DataIntegrityViolationException duplicate = new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UX_PASSENGER_EMAIL_NORMALIZED ON PUBLIC.PASSENGER(EMAIL_NORMALIZED)\"");
+        AtomicInteger nextId = new AtomicInteger(1);
+        when(passengerJdbcRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Passenger> passengers = invocation.getArgument(0);
+            if (passengers.stream().filter(passenger -> passenger.getEmail().equalsIgnoreCase("twice@email.com")).count() > 1) {
+                throw duplicate;
+            }
+            passengers.forEach(passenger -> passenger.setPassengerId(nextId.getAndIncrement()));
+            return passengers;
+        });
+        List<BulkCreateResultDTO> results = new ArrayList<>();
+
+        passengerBulkService.bulkCreatePassengers(List.of(
+                MockPassenger.getPassengerDTO(null, "first", "twice@email.com"),
+                MockPassenger.getPassengerDTO(null, "second", "Twice@Email.com")).iterator(), results::add);
+
+        assertThat(results).extracting(BulkCreateResultDTO::status)
+                .containsExactly(BulkCreateStatus.CREATED, BulkCreateStatus.CONFLICT);
+        verify(passengerJdbcRepository).findTakenEmails(Set.of("twice@email.com"));
+        verify(passengerJdbcRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Given: malformed input after one item, When: bulkCreatePassengers, Then: first item created and failure reported")
+    void bulkCreatePassengersMalformed() {
+        assignIds();
+        Iterator<PassengerDTO> passengers = new Iterator<>() {
+            private boolean first = true;
+
+            @Override
+            public boolean hasNext() {
+                if (first) {
+                    return true;
+                }
+                throw new IllegalStateException("Unexpected character");
+            }
+
+            @Override
+            public PassengerDTO next() {
+                first = false;
+                return MockPassenger.getPassengerDTO();
+            }
+        };
+        List<BulkCreateResultDTO> results = new ArrayList<>();
+
+        passengerBulkService.bulkCreatePassengers(passengers, results::add);
+
+        assertThat(results).extracting(BulkCreateResultDTO::status)
+                .containsExactly(BulkCreateStatus.CREATED, BulkCreateStatus.FAILED);
+        assertThat(results.get(1).index()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,162 @@
+package com.ride_hailing.passenger.serviceTest;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncPageDTO;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.service.PassengerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against the embedded database: the ordering comes from its change tickets and sequence, which a mock cannot show
+@SpringBootTest(properties = "passenger.scheduling.enabled=false")
+class PassengerChangeOrderTest {
+    @Autowired
+    private PassengerService passengerService;
+    @Autowired
+    private PassengerJdbcRepository passengerJdbcRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private long latestChange() {
+        AtomicLong latest = new AtomicLong();
+        passengerService.streamChangesSince(0, change -> latest.set(change.changeSeq()));
+        return latest.get();
+    }
+
+    private List<Integer> changedIdsSince(long since) {
+        List<Integer> ids = new ArrayList<>();
+        passengerService.streamChangesSince(since, change -> ids.add(change.passengerId()));
+        return ids;
+    }
+
+    private Integer create(String email) {
+        PassengerDTO passengerDTO = MockPassenger.getPassengerDTO(null, "test", email);
+        return passengerService.createPassenger(passengerDTO).orElseThrow().passengerId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Given: a write that drew its change sequence and has not committed, When: a second write commits, Then: it is not held back, and the change log stops below the first until it commits")
+    void changeLogStopsAtOldestOpenWrite() throws Exception {
+        long cursor = latestChange();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Future<Integer> first = executor.submit(() -> transactionTemplate.execute(status -> {
+            Integer passengerId = create("change-order-first@email.com");
+            written.countDown();
+            await(commit);
+            return passengerId;
+        }));
+        await(written);
+        Integer secondId = executor.submit(() -> create("change-order-second@email.com")).get(5, TimeUnit.SECONDS);
+
+        assertThat(changedIdsSince(cursor)).isEmpty();
+        assertThat(passengerService.getChangesSince(cursor, 10).nextSince()).isEqualTo(cursor);
+
+        commit.countDown();
+        Integer firstId = first.get(5, TimeUnit.SECONDS);
+
+        List<PassengerSyncDTO> changes = passengerService.getChangesSince(cursor, 10).changes();
+        assertThat(changes).extracting(PassengerSyncDTO::passengerId).containsExactly(firstId, secondId);
+        assertThat(changedIdsSince(changes.get(0).changeSeq())).containsExactly(secondId);
+    }
+
+    @Test
+    @DisplayName("Given: concurrent writers, When: a reader follows nextSince while they write, Then: it sees every change once and in order")
+    void concurrentWritersAreNotSkipped() throws Exception {
+        long cursor = latestChange();
+        int writers = 4;
+        int perWriter = 25;
+        List<Future<List<Integer>>> writes = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            int w = writer;
+            writes.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < perWriter; i++) {
+                    ids.add(create("concurrent-" + w + "-" + i + "@email.com"));
+                }
+                return ids;
+            }));
+        }
+
+        List<PassengerSyncDTO> seen = new ArrayList<>();
+        long since = cursor;
+        while (seen.size() < writers * perWriter) {
+            PassengerSyncPageDTO page = passengerService.getChangesSince(since, 7);
+            seen.addAll(page.changes());
+            since = page.nextSince();
+            if (page.changes().isEmpty() && writes.stream().allMatch(Future::isDone)) {
+                break;
+            }
+        }
+
+        List<Integer> created = new ArrayList<>();
+        for (Future<List<Integer>> write : writes) {
+            created.addAll(write.get(5, TimeUnit.SECONDS));
+        }
+        assertThat(seen).extracting(PassengerSyncDTO::passengerId).containsExactlyInAnyOrderElementsOf(created);
+        assertThat(seen).extracting(PassengerSyncDTO::changeSeq).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Given: tombstones on both sides of page boundaries, When: getChangesSince page by page, Then: pages follow the merged change order")
+    void pagesMergeTombstones() {
+        long cursor = latestChange();
+        Integer a = create("page-merge-a@email.com");
+        Integer b = create("page-merge-b@email.com");
+        Integer c = create("page-merge-c@email.com");
+        Integer d = create("page-merge-d@email.com");
+        passengerService.deletePassenger(b);
+        Integer e = create("page-merge-e@email.com");
+        passengerService.deletePassenger(d);
+        passengerJdbcRepository.purgeDeleted(100);
+
+        List<PassengerSyncDTO> paged = new ArrayList<>();
+        PassengerSyncPageDTO page;
+        long since = cursor;
+        do {
+            page = passengerService.getChangesSince(since, 2);
+            paged.addAll(page.changes());
+            since = page.nextSince();
+        } while (page.hasMore());
+
+        assertThat(paged).extracting(PassengerSyncDTO::passengerId).containsExactly(a, c, b, e, d);
+        assertThat(paged).extracting(PassengerSyncDTO::deleted).containsExactly(false, false, true, false, true);
+        assertThat(paged).extracting(PassengerSyncDTO::changeSeq).isSorted();
+    }
+}
@@ -0,0 +1,193 @@
+package com.ride_hailing.passenger.serviceTest;
+
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.service.PassengerLookupBatcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PassengerLookupBatcherTest {
+    private static final int BUSY_ID = 99;
+
+    private final PassengerJdbcRepository passengerJdbcRepository = mock(PassengerJdbcRepository.class);
+    private final PassengerCache passengerCache = new PassengerCache(100, 600, 30);
+
+    private static PassengerDTO passenger(int passengerId) {
+        return MockPassenger.getPassengerDTO(passengerId, "test" + passengerId, "test" + passengerId + "@email.com");
+    }
+
+    private static List<Optional<PassengerDTO>> lookupConcurrently(PassengerLookupBatcher batcher, List<Integer> passengerIds)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<PassengerDTO>>> lookups = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Integer passengerId : passengerIds) {
+                lookups.add(executor.submit(() -> {
+                    start.await();
+                    return batcher.findById(passengerId);
+                }));
+            }
+            start.countDown();
+        }
+        List<Optional<PassengerDTO>> results = new ArrayList<>();
+        for (Future<Optional<PassengerDTO>> lookup : lookups) {
+            results.add(lookup.get());
+        }
+        return results;
+    }
+
+    // Keeps one lookup in progress, so the batcher sees concurrent traffic and holds new batches open for the window
+    private AutoCloseable busy(PassengerLookupBatcher batcher) throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passengerJdbcRepository.findDTOById(BUSY_ID)).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        Thread lookup = Thread.startVirtualThread(() -> batcher.findById(BUSY_ID));
+        entered.await();
+        return () -> {
+            release.countDown();
+            lookup.join();
+        };
+    }
+
+    @Test
+    @DisplayName("Given: concurrent lookups of one id, When: findById, Then: one query serves them all")
+    void singleFlight() throws Exception {
+        PassengerLookupBatcher batcher = new PassengerLookupBatcher(passengerJdbcRepository, passengerCache, 50_000, 500);
+        when(passengerJdbcRepository.findDTOById(7)).thenReturn(Optional.of(passenger(7)));
+
+        List<Optional<PassengerDTO>> results;
+        try (AutoCloseable busy = busy(batcher)) {
+            results = lookupConcurrently(batcher, List.of(7, 7, 7, 7, 7, 7, 7, 7));
+        }
+
+        assertThat(results).containsOnly(Optional.of(passenger(7)));
+        verify(passengerJdbcRepository, times(1)).findDTOById(7);
+        assertThat(batcher.getCoalescedCount()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Given: lookups of different ids within the window, When: findById, Then: one batch query, misses are empty")
+    @SuppressWarnings("unchecked")
+    void microBatch() throws Exception {
+        PassengerLookupBatcher batcher = new PassengerLookupBatcher(passengerJdbcRepository, passengerCache, 50_000, 500);
+        when(passengerJdbcRepository.findAllDTOsById(anyCollection()))
+                .thenAnswer(invocation -> ((Collection<Integer>) invocation.getArgument(0)).stream()
+                        .filter(passengerId -> passengerId != 3)
+                        .map(PassengerLookupBatcherTest::passenger)
+                        .toList());
+
+        List<Optional<PassengerDTO>> results;
+        try (AutoCloseable busy = busy(batcher)) {
+            results = lookupConcurrently(batcher, List.of(1, 2, 3, 4));
+        }
+
+        assertThat(results).containsExactly(Optional.of(passenger(1)), Optional.of(passenger(2)), Optional.empty(),
+                Optional.of(passenger(4)));
+        verify(passengerJdbcRepository, times(1)).findAllDTOsById(anyCollection());
+        verify(passengerJdbcRepository, never()).findDTOById(intThat(passengerId -> passengerId != BUSY_ID));
+    }
+
+    @Test
+    @DisplayName("Given: a full batch, When: findById, Then: it is loaded without waiting for the window")
+    void fullBatch() throws Exception {
+        PassengerLookupBatcher batcher = new PassengerLookupBatcher(passengerJdbcRepository, passengerCache, 60_000_000, 2);
+        when(passengerJdbcRepository.findAllDTOsById(anyCollection())).thenReturn(List.of(passenger(1), passenger(2)));
+
+        long start = System.nanoTime();
+        try (AutoCloseable busy = busy(batcher)) {
+            assertThat(lookupConcurrently(batcher, List.of(1, 2))).hasSize(2);
+        }
+
+        assertThat(System.nanoTime() - start).isLessThan(10_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Given: no other lookup in progress, When: findById, Then: it is loaded without waiting for the window")
+    void loneLookup() {
+        PassengerLookupBatcher batcher = new PassengerLookupBatcher(passengerJdbcRepository, passengerCache, 60_000_000, 500);
+        when(passengerJdbcRepository.findDTOById(7)).thenReturn(Optional.of(passenger(7)));
+
+        long start = System.nanoTime();
+        assertThat(batcher.findById(7)).contains(passenger(7));
+
+        assertThat(System.nanoTime() - start).isLessThan(10_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Given: a load in flight, When: the id is invalidated, Then: a later caller runs its own query instead of joining the stale load")
+    void invalidationBypassesLoadInFlight() throws Exception {
+        PassengerLookupBatcher batcher = new PassengerLookupBatcher(passengerJdbcRepository, passengerCache, 1_000, 500);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passengerJdbcRepository.findDTOById(7))
+                .thenAnswer(invocation -> {
+                    entered.countDown();
+                    release.await();
+                    return Optional.of(passenger(7));
+                })
+                .thenReturn(Optional.of(passenger(7).toBuilder().name("updated").build()));
+        Future<Optional<PassengerDTO>> stale;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            stale = executor.submit(() -> batcher.findById(7));
+            entered.await();
+
+            passengerCache.invalidate(7);
+            Optional<PassengerDTO> fresh = batcher.findById(7);
+            release.countDown();
+
+            assertThat(fresh).map(PassengerDTO::name).contains("updated");
+        }
+        assertThat(stale.get()).map(PassengerDTO::name).contains("test7");
+        verify(passengerJdbcRepository, times(2)).findDTOById(7);
+        assertThat(batcher.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given: the batch query fails, When: findById, Then: every waiting caller gets the exception and nothing stays in flight")
+    void failure() {
+        PassengerLookupBatcher batcher = new PassengerLookupBatcher(passengerJdbcRepository, passengerCache, 0, 500);
+        when(passengerJdbcRepository.findDTOById(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(() -> batcher.findById(1)).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThatThrownBy(() -> batcher.findById(1)).isInstanceOf(DataAccessResourceFailureException.class);
+        verify(passengerJdbcRepository, times(2)).findDTOById(1);
+    }
+
+    @Test
+    @DisplayName("Given: the query throws an Error, When: findById, Then: the caller gets it and nothing stays in flight")
+    void error() {
+        PassengerLookupBatcher batcher = new PassengerLookupBatcher(passengerJdbcRepository, passengerCache, 0, 500);
+        when(passengerJdbcRepository.findDTOById(any())).thenThrow(new StackOverflowError());
+
+        assertThatThrownBy(() -> batcher.findById(1)).isInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> batcher.findById(1)).isInstanceOf(StackOverflowError.class);
+        verify(passengerJdbcRepository, times(2)).findDTOById(1);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ride_hailing.passenger.serviceTest;
+
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.service.PassengerPurgeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PassengerPurgeServiceTest {
+    private final PassengerJdbcRepository passengerJdbcRepository = mock(PassengerJdbcRepository.class);
+
+    @Test
+    @DisplayName("Given: backlog larger than one batch, When: purge, Then: purge batch by batch until a partial batch")
+    void purge() throws Exception {
+        when(passengerJdbcRepository.purgeDeleted(2)).thenReturn(2, 2, 1);
+
+        long purged = new PassengerPurgeService(passengerJdbcRepository, 2, 0, 60).purge();
+
+        assertThat(purged).isEqualTo(5);
+        verify(passengerJdbcRepository, times(3)).purgeDeleted(2);
+    }
+
+    @Test
+    @DisplayName("Given: run time used up, When: purge, Then: stop after the current batch")
+    void purgeStopsAtDeadline() throws Exception {
+        when(passengerJdbcRepository.purgeDeleted(2)).thenReturn(2);
+
+        long purged = new PassengerPurgeService(passengerJdbcRepository, 2, 0, 0).purge();
+
+        assertThat(purged).isEqualTo(2);
+        verify(passengerJdbcRepository, times(1)).purgeDeleted(2);
+    }
+}
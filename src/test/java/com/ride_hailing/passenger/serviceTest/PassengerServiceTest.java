@@ -1,32 +1,56 @@
 package com.ride_hailing.passenger.serviceTest;
 
+import com.ride_hailing.passenger.cache.PassengerCache;
+import com.ride_hailing.passenger.cache.PassengerSharedCache;
+import com.ride_hailing.passenger.config.AsyncConfig;
+import com.ride_hailing.passenger.dto.PassengerChangeType;
 import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerPageDTO;
+import com.ride_hailing.passenger.dto.PassengerSearchPageDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncDTO;
+import com.ride_hailing.passenger.dto.PassengerSyncPageDTO;
+import com.ride_hailing.passenger.exception.ConflictException;
+import com.ride_hailing.passenger.exception.PreconditionFailedException;
 import com.ride_hailing.passenger.mapper.Mapper;
 import com.ride_hailing.passenger.mapper.PassengerMapper;
 import com.ride_hailing.passenger.mock.MockPassenger;
 import com.ride_hailing.passenger.model.Passenger;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.repository.PassengerOutboxRepository;
 import com.ride_hailing.passenger.repository.PassengerRepository;
+import com.ride_hailing.passenger.service.PassengerChangeTickets;
+import com.ride_hailing.passenger.service.PassengerLookupBatcher;
 import com.ride_hailing.passenger.service.PassengerService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
-@ContextConfiguration(classes = {PassengerService.class, PassengerMapper.class})
+@ContextConfiguration(classes = {PassengerService.class, PassengerChangeTickets.class, PassengerMapper.class, PassengerCache.class, PassengerSharedCache.class, PassengerLookupBatcher.class,
+        AsyncConfig.class})
+@TestPropertySource(properties = "passenger.lookup.chunk-size=2")
 class PassengerServiceTest {
     @Autowired
     private PassengerService passengerService;
@@ -34,19 +58,36 @@ class PassengerServiceTest {
     @MockBean
     private PassengerRepository passengerRepository;
 
+    @MockBean
+    private PassengerJdbcRepository passengerJdbcRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private PassengerOutboxRepository passengerOutboxRepository;
+
     @SpyBean
     private Mapper<Passenger, PassengerDTO> passengerMapper;
 
+    @Autowired
+    private PassengerCache passengerCache;
+
+    @BeforeEach
+    void clearCache() {
+        passengerCache.invalidateAll();
+    }
+
     @Test
     @DisplayName("Given: passengerId found, When: getPassengerById, Then: return PassengerDTO")
     void getPassengerById() {
         Optional<PassengerDTO> expectedPassengerDTO = Optional.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
-        when(passengerRepository.findByPassengerId(anyInt()))
-                .thenReturn(Optional.of(MockPassenger.getPassenger(1)));
+        when(passengerJdbcRepository.findDTOById(anyInt()))
+                .thenReturn(expectedPassengerDTO);
 
         Optional<PassengerDTO> resultPassengerDTO = passengerService.getPassengerById(1);
-        verify(passengerRepository).findByPassengerId(1);
-        verify(passengerMapper).mapToDTO(any(Passenger.class));
+        verify(passengerJdbcRepository).findDTOById(1);
+        verifyNoInteractions(passengerRepository, passengerMapper);
 
         assertThat(resultPassengerDTO).isEqualTo(expectedPassengerDTO);
     }
@@ -54,37 +95,81 @@ class PassengerServiceTest {
     @Test
     @DisplayName("Given: passengerId not found, When: getPassengerById, Then: return empty PassengerDTO")
     void getPassengerByIdNotFound() {
-        when(passengerRepository.findByPassengerId(anyInt()))
+        when(passengerJdbcRepository.findDTOById(anyInt()))
                 .thenReturn(Optional.empty());
         Optional<PassengerDTO> passengerDTO = passengerService.getPassengerById(1);
-        verify(passengerRepository).findByPassengerId(1);
-        verify(passengerMapper, never()).mapToDTO(any(Passenger.class));
+        verify(passengerJdbcRepository).findDTOById(1);
 
         assertThat(passengerDTO).isEmpty();
     }
 
+    @Test
+    @DisplayName("Given: passengerId already looked up, When: getPassengerById, Then: served from cache")
+    void getPassengerByIdCached() {
+        when(passengerJdbcRepository.findDTOById(anyInt()))
+                .thenReturn(Optional.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com")));
+
+        passengerService.getPassengerById(1);
+        Optional<PassengerDTO> resultPassengerDTO = passengerService.getPassengerById(1);
+
+        verify(passengerJdbcRepository, times(1)).findDTOById(1);
+        assertThat(resultPassengerDTO).contains(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
+    }
+
+    @Test
+    @DisplayName("Given: missing passengerId cached, When: createPassenger returns that id, Then: next lookup hits repository")
+    void createPassengerInvalidatesNegativeEntry() {
+        when(passengerJdbcRepository.findDTOById(anyInt())).thenReturn(Optional.empty());
+        passengerService.getPassengerById(1);
+        passengerService.getPassengerById(1);
+        verify(passengerJdbcRepository, times(1)).findDTOById(1);
+
+        when(passengerRepository.saveAndFlush(any(Passenger.class))).thenReturn(MockPassenger.getPassenger(1));
+        when(passengerJdbcRepository.findDTOById(anyInt()))
+                .thenReturn(Optional.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com")));
+        passengerService.createPassenger(MockPassenger.getPassengerDTO());
+
+        assertThat(passengerService.getPassengerById(1)).isPresent();
+        verify(passengerJdbcRepository, times(2)).findDTOById(1);
+    }
+
     @Test
     @DisplayName("Given: passengerIds found, When: getPassengerByIds, Then: return PassengerDTO list")
     void getPassengerByIds() {
         List<PassengerDTO> expectedPassengerDTOList = List.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
-        when(passengerRepository.findAllById(anyList()))
-                .thenReturn(List.of(MockPassenger.getPassenger(1)));
+        when(passengerJdbcRepository.findAllDTOsById(anyList()))
+                .thenReturn(expectedPassengerDTOList);
 
         List<PassengerDTO> resultPassengerDTOList = passengerService.getPassengerByIds(List.of(1));
-        verify(passengerRepository).findAllById(List.of(1));
-        verify(passengerMapper).mapToDTO(any(Passenger.class));
+        verify(passengerJdbcRepository).findAllDTOsById(List.of(1));
+        verifyNoInteractions(passengerRepository, passengerMapper);
 
         assertThat(resultPassengerDTOList).isEqualTo(expectedPassengerDTOList);
     }
 
+    @Test
+    @DisplayName("Given: duplicate passengerIds over several chunks, When: getPassengerByIds, Then: each distinct id queried once")
+    void getPassengerByIdsChunked() {
+        when(passengerJdbcRepository.findAllDTOsById(anyList())).thenAnswer(invocation -> {
+            List<Integer> chunk = invocation.getArgument(0);
+            return chunk.stream().map(id -> MockPassenger.getPassengerDTO(id, "test", "test@email.com")).toList();
+        });
+
+        List<PassengerDTO> resultPassengerDTOList = passengerService.getPassengerByIds(List.of(1, 2, 1, 3, 2, 4, 5));
+
+        verify(passengerJdbcRepository).findAllDTOsById(List.of(1, 2));
+        verify(passengerJdbcRepository).findAllDTOsById(List.of(3, 4));
+        verify(passengerJdbcRepository).findAllDTOsById(List.of(5));
+        assertThat(resultPassengerDTOList).extracting(PassengerDTO::passengerId).containsExactly(1, 2, 3, 4, 5);
+    }
+
     @Test
     @DisplayName("Given: passengerIds not found, When: getPassengerByIds, Then: return empty PassengerDTO list")
     void getPassengerByIdsNotFound() {
-        when(passengerRepository.findAllById(anyList()))
+        when(passengerJdbcRepository.findAllDTOsById(anyList()))
                 .thenReturn(Collections.emptyList());
         List<PassengerDTO> passengerDTOList = passengerService.getPassengerByIds(List.of(1));
-        verify(passengerRepository).findAllById(List.of(1));
-        verify(passengerMapper, never()).mapToDTO(any(Passenger.class));
+        verify(passengerJdbcRepository).findAllDTOsById(List.of(1));
 
         assertThat(passengerDTOList).isEmpty();
     }
@@ -93,47 +178,209 @@ class PassengerServiceTest {
     @DisplayName("Given: - , When: getAllPassengers, Then: return passengerDTO")
     void getAllPassengers() {
         List<PassengerDTO> expectedPassengerDTOList = List.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
-        when(passengerRepository.findAll()).thenReturn(List.of(MockPassenger.getPassenger(1)));
+        when(passengerJdbcRepository.findAllDTOs()).thenReturn(expectedPassengerDTOList);
 
         List<PassengerDTO> resultPassengerDTOList = passengerService.getAllPassengers();
 
-        verify(passengerRepository).findAll();
-        verify(passengerMapper).mapToDTO(any(Passenger.class));
+        verify(passengerJdbcRepository).findAllDTOs();
+        verifyNoInteractions(passengerRepository, passengerMapper);
         assertThat(resultPassengerDTOList).isEqualTo(expectedPassengerDTOList);
     }
 
+    @Test
+    @DisplayName("Given: full page, When: getPassengerPage, Then: return passengers with next cursor")
+    void getPassengerPage() {
+        when(passengerJdbcRepository.findPageAfter(0, 2)).thenReturn(List.of(
+                MockPassenger.getPassengerDTO(1, "test", "test@email.com"),
+                MockPassenger.getPassengerDTO(2, "test", "test@email.com")));
+
+        PassengerPageDTO passengerPageDTO = passengerService.getPassengerPage(0, 2);
+
+        verify(passengerJdbcRepository).findPageAfter(0, 2);
+        verifyNoInteractions(passengerRepository, passengerMapper);
+        assertThat(passengerPageDTO.passengers()).extracting(PassengerDTO::passengerId).containsExactly(1, 2);
+        assertThat(passengerPageDTO.nextAfter()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given: last page, When: getPassengerPage, Then: return passengers without next cursor")
+    void getPassengerPageLast() {
+        when(passengerJdbcRepository.findPageAfter(2, 2))
+                .thenReturn(List.of(MockPassenger.getPassengerDTO(3, "test", "test@email.com")));
+
+        PassengerPageDTO passengerPageDTO = passengerService.getPassengerPage(2, 2);
+
+        assertThat(passengerPageDTO.passengers()).extracting(PassengerDTO::passengerId).containsExactly(3);
+        assertThat(passengerPageDTO.nextAfter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Given: more changes than limit, When: getChangesSince, Then: return page with next token and hasMore")
+    void getChangesSince() {
+        when(passengerJdbcRepository.findChangesSince(10, 3)).thenReturn(List.of(
+                PassengerSyncDTO.builder().changeSeq(11).passengerId(1).build(),
+                PassengerSyncDTO.builder().changeSeq(14).passengerId(2).deleted(true).build(),
+                PassengerSyncDTO.builder().changeSeq(15).passengerId(3).build()));
+
+        PassengerSyncPageDTO passengerSyncPageDTO = passengerService.getChangesSince(10, 2);
+
+        assertThat(passengerSyncPageDTO.changes()).extracting(PassengerSyncDTO::changeSeq).containsExactly(11L, 14L);
+        assertThat(passengerSyncPageDTO.nextSince()).isEqualTo(14);
+        assertThat(passengerSyncPageDTO.hasMore()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given: no changes, When: getChangesSince, Then: token is unchanged")
+    void getChangesSinceNothingChanged() {
+        when(passengerJdbcRepository.findChangesSince(anyLong(), anyInt())).thenReturn(List.of());
+
+        PassengerSyncPageDTO passengerSyncPageDTO = passengerService.getChangesSince(42, 100);
+
+        assertThat(passengerSyncPageDTO.changes()).isEmpty();
+        assertThat(passengerSyncPageDTO.nextSince()).isEqualTo(42);
+        assertThat(passengerSyncPageDTO.hasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given: name and email prefix matches, When: searchPassengers, Then: exact first, then name, then email matches, paged")
+    void searchPassengers() {
+        PassengerDTO johnDoe = MockPassenger.getPassengerDTO(1, "JOHN DOE", "john.doe@example.com");
+        PassengerDTO john = MockPassenger.getPassengerDTO(2, "Jo", "jo@example.com");
+        PassengerDTO joan = MockPassenger.getPassengerDTO(3, "ANN", "joan@example.com");
+        when(passengerJdbcRepository.findByNamePrefix("jo", 3)).thenReturn(List.of(john, johnDoe));
+        when(passengerJdbcRepository.findByEmailPrefix("jo", 3)).thenReturn(List.of(john, joan, johnDoe));
+
+        PassengerSearchPageDTO firstPage = passengerService.searchPassengers(" Jo ", 0, 2);
+
+        assertThat(firstPage.passengers()).containsExactly(john, johnDoe);
+        assertThat(firstPage.nextOffset()).isEqualTo(2);
+
+        when(passengerJdbcRepository.findByNamePrefix("jo", 5)).thenReturn(List.of(john, johnDoe));
+        when(passengerJdbcRepository.findByEmailPrefix("jo", 5)).thenReturn(List.of(john, joan, johnDoe));
+
+        PassengerSearchPageDTO secondPage = passengerService.searchPassengers("jo", 2, 2);
+
+        assertThat(secondPage.passengers()).containsExactly(joan);
+        assertThat(secondPage.nextOffset()).isNull();
+    }
+
+    @Test
+    @DisplayName("Given: - , When: streamAllPassengers, Then: every row is handed to the consumer")
+    @SuppressWarnings("unchecked")
+    void streamAllPassengers() {
+        doAnswer(invocation -> {
+            Consumer<PassengerDTO> consumer = invocation.getArgument(0);
+            consumer.accept(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
+            consumer.accept(MockPassenger.getPassengerDTO(2, "test", "test@email.com"));
+            return null;
+        }).when(passengerJdbcRepository).streamAll(any(Consumer.class));
+
+        List<PassengerDTO> streamed = new ArrayList<>();
+        passengerService.streamAllPassengers(streamed::add);
+
+        assertThat(streamed).extracting(PassengerDTO::passengerId).containsExactly(1, 2);
+    }
+
     @Test
     @DisplayName("Given: passenger, When: createPassenger, Then: return passengerDTO")
     void createPassenger() {
         Optional<PassengerDTO> expectedPassengerDTO  = Optional.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
-        when(passengerRepository.save(any(Passenger.class))).thenReturn(MockPassenger.getPassenger(1));
+        when(passengerRepository.saveAndFlush(any(Passenger.class))).thenReturn(MockPassenger.getPassenger(1));
 
         Optional<PassengerDTO> resultPassengerDTO = passengerService.createPassenger(expectedPassengerDTO.get());
-        verify(passengerRepository).save(any());
+        verify(passengerRepository).saveAndFlush(any());
+        verify(passengerOutboxRepository).append(eq(PassengerChangeType.CREATED), any(Passenger.class));
         verify(passengerMapper).mapToDTO(any(Passenger.class));
         assertThat(resultPassengerDTO).isEqualTo(expectedPassengerDTO);
     }
 
+    @Test
+    @DisplayName("Given: email already used, When: createPassenger, Then: throw ConflictException")
+    void createPassengerDuplicateEmail() {
+        when(passengerRepository.saveAndFlush(any(Passenger.class))).thenThrow(new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UX_PASSENGER_EMAIL_NORMALIZED ON PUBLIC.PASSENGER(EMAIL_NORMALIZED)\""));
+
+        assertThatThrownBy(() -> passengerService.createPassenger(MockPassenger.getPassengerDTO()))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Passenger with email test@email.com already exists");
+        verifyNoInteractions(passengerOutboxRepository);
+    }
+
+    @Test
+    @DisplayName("Given: other integrity violation, When: createPassenger, Then: rethrow it")
+    void createPassengerOtherIntegrityViolation() {
+        when(passengerRepository.saveAndFlush(any(Passenger.class))).thenThrow(new DataIntegrityViolationException("NULL not allowed"));
+
+        assertThatThrownBy(() -> passengerService.createPassenger(MockPassenger.getPassengerDTO()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Given: email found, When: getPassengerByEmail, Then: return PassengerDTO")
+    void getPassengerByEmail() {
+        when(passengerRepository.findByEmail("TEST@email.com")).thenReturn(Optional.of(MockPassenger.getPassenger(1)));
+
+        Optional<PassengerDTO> resultPassengerDTO = passengerService.getPassengerByEmail("TEST@email.com");
+
+        assertThat(resultPassengerDTO).contains(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
+    }
+
     @Test
     @DisplayName("Given: passengerId and passenger, When updatePassenger, Then: return passengerDTO")
     void updatePassenger() {
         when(passengerRepository.findById(anyInt())).thenReturn(Optional.of(MockPassenger.getPassenger(1)));
-        when(passengerRepository.save(any(Passenger.class))).thenReturn(MockPassenger.getPassenger(1));
+        when(passengerRepository.saveAndFlush(any(Passenger.class))).thenReturn(MockPassenger.getPassenger(1));
 
         Optional<PassengerDTO> expectedPassengerDTO  = Optional.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com"));
         Optional<PassengerDTO> resultPassengerDTO = passengerService.updatePassenger(1, expectedPassengerDTO.get());
 
-        verify(passengerRepository).save(any());
+        verify(passengerRepository).saveAndFlush(any());
+        verify(passengerOutboxRepository).append(eq(PassengerChangeType.UPDATED), any(Passenger.class));
         verify(passengerMapper).mapToDTO(any(Passenger.class));
         assertThat(resultPassengerDTO).isEqualTo(expectedPassengerDTO);
     }
 
+    @Test
+    @DisplayName("Given: stale expected version, When updatePassenger, Then: throw PreconditionFailedException without saving")
+    void updatePassengerStaleVersion() {
+        Passenger storedPassenger = MockPassenger.getPassenger(1);
+        storedPassenger.setVersion(5L);
+        when(passengerRepository.findById(anyInt())).thenReturn(Optional.of(storedPassenger));
+
+        PassengerDTO update = MockPassenger.getPassengerDTO(1, "test", "test@email.com").toBuilder().version(4L).build();
+
+        assertThatThrownBy(() -> passengerService.updatePassenger(1, update))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(passengerRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Given: concurrent update without If-Match, When updatePassenger, Then: throw ConflictException")
+    void updatePassengerConcurrentModification() {
+        when(passengerRepository.findById(anyInt())).thenReturn(Optional.of(MockPassenger.getPassenger(1)));
+        when(passengerRepository.saveAndFlush(any(Passenger.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Passenger.class, 1));
+
+        assertThatThrownBy(() -> passengerService.updatePassenger(1, MockPassenger.getPassengerDTO(1, "test", "test@email.com")))
+                .isInstanceOf(ConflictException.class);
+        verifyNoInteractions(passengerOutboxRepository);
+    }
+
     @Test
     @DisplayName("Given: passengerId, When: delete, Then: success delete")
     void deletePassenger() {
-        when(passengerRepository.findById(1)).thenReturn(Optional.of(MockPassenger.getPassenger(1)));
+        Passenger storedPassenger = MockPassenger.getPassenger(1);
+        when(passengerRepository.findById(1)).thenReturn(Optional.of(storedPassenger));
+        when(passengerRepository.saveAndFlush(storedPassenger)).thenReturn(storedPassenger);
+        when(passengerJdbcRepository.findDTOById(anyInt()))
+                .thenReturn(Optional.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com")));
+        passengerService.getPassengerById(1);
+
         passengerService.deletePassenger(1);
+        passengerService.getPassengerById(1);
 
-        verify(passengerRepository).deleteById(1);
+        verify(passengerRepository).saveAndFlush(argThat(Passenger::isDeleted));
+        verify(passengerOutboxRepository).append(PassengerChangeType.DELETED, storedPassenger);
+        verify(passengerJdbcRepository, times(2)).findDTOById(1);
     }
 }
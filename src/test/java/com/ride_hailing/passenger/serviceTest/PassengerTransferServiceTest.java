@@ -0,0 +1,133 @@
+package com.ride_hailing.passenger.serviceTest;
+
+import com.ride_hailing.passenger.dto.BulkCreateResultDTO;
+import com.ride_hailing.passenger.dto.BulkCreateStatus;
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.dto.PassengerTransferResultDTO;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.repository.PassengerJdbcRepository;
+import com.ride_hailing.passenger.service.PassengerBulkService;
+import com.ride_hailing.passenger.service.PassengerTransferService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PassengerTransferServiceTest {
+    private final PassengerJdbcRepository passengerJdbcRepository = mock(PassengerJdbcRepository.class);
+    private final PassengerBulkService passengerBulkService = mock(PassengerBulkService.class);
+    private final PassengerTransferService passengerTransferService =
+            new PassengerTransferService(passengerJdbcRepository, passengerBulkService, 2, 60);
+
+    @TempDir
+    private Path directory;
+
+    private static List<PassengerDTO> passengers(int fromId, int toId) {
+        return IntStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> MockPassenger.getPassengerDTO(id, "test", "test" + id + "@email.com"))
+                .toList();
+    }
+
+    private void streamAfter(int afterPassengerId, List<PassengerDTO> passengers) {
+        doAnswer(invocation -> {
+            Consumer<PassengerDTO> consumer = invocation.getArgument(1);
+            passengers.forEach(consumer);
+            return null;
+        }).when(passengerJdbcRepository).streamAllAfter(eq(afterPassengerId), any());
+    }
+
+    // Records what the bulk service received and answers every row with the given status
+    private List<PassengerDTO> bulkCreate(BulkCreateStatus status) {
+        List<PassengerDTO> received = new ArrayList<>();
+        doAnswer(invocation -> {
+            Iterator<PassengerDTO> passengers = invocation.getArgument(0);
+            Consumer<BulkCreateResultDTO> results = invocation.getArgument(1);
+            long index = 0;
+            while (passengers.hasNext()) {
+                received.add(passengers.next());
+                results.accept(BulkCreateResultDTO.builder().index(index++).status(status).build());
+            }
+            return null;
+        }).when(passengerBulkService).bulkCreatePassengers(any(), any());
+        return received;
+    }
+
+    @Test
+    @DisplayName("Given: an export that ended early, When: export again, Then: continue after the last exported passenger")
+    void exportResumes() throws IOException {
+        Path file = directory.resolve("passengers.pcf");
+        streamAfter(0, passengers(1, 4));
+        passengerTransferService.export(file);
+        streamAfter(4, passengers(5, 5));
+
+        PassengerTransferResultDTO result = passengerTransferService.export(file);
+
+        verify(passengerJdbcRepository).streamAllAfter(eq(4), any());
+        assertThat(result.rows()).isEqualTo(1);
+        assertThat(result.chunks()).isEqualTo(1);
+        assertThat(passengerTransferService.getExportedRowCount()).isEqualTo(5);
+
+        List<PassengerDTO> imported = bulkCreate(BulkCreateStatus.CREATED);
+        passengerTransferService.importFile(file);
+        assertThat(imported).isEqualTo(passengers(1, 5));
+    }
+
+    @Test
+    @DisplayName("Given: a completed import, When: import again, Then: nothing is inserted twice")
+    void importRecordsCheckpoint() throws IOException {
+        Path file = directory.resolve("passengers.pcf");
+        streamAfter(0, passengers(1, 3));
+        passengerTransferService.export(file);
+        List<PassengerDTO> imported = bulkCreate(BulkCreateStatus.CREATED);
+
+        PassengerTransferResultDTO first = passengerTransferService.importFile(file);
+        PassengerTransferResultDTO second = passengerTransferService.importFile(file);
+
+        assertThat(first.rows()).isEqualTo(3);
+        assertThat(second.rows()).isZero();
+        assertThat(imported).hasSize(3);
+        assertThat(Files.readString(directory.resolve("passengers.pcf.imported"))).isEqualTo(String.valueOf(Files.size(file)));
+    }
+
+    @Test
+    @DisplayName("Given: rows that fail to insert, When: importFile, Then: stop without recording the chunk")
+    void importStopsOnFailure() throws IOException {
+        Path file = directory.resolve("passengers.pcf");
+        streamAfter(0, passengers(1, 2));
+        passengerTransferService.export(file);
+        bulkCreate(BulkCreateStatus.FAILED);
+
+        assertThatThrownBy(() -> passengerTransferService.importFile(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("2 of 2 rows failed to insert");
+        assertThat(directory.resolve("passengers.pcf.imported")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Given: conflicting rows, When: importFile, Then: counted as rejected and the import continues")
+    void importCountsRejected() throws IOException {
+        Path file = directory.resolve("passengers.pcf");
+        streamAfter(0, passengers(1, 3));
+        passengerTransferService.export(file);
+        bulkCreate(BulkCreateStatus.CONFLICT);
+
+        PassengerTransferResultDTO result = passengerTransferService.importFile(file);
+
+        assertThat(result.rows()).isEqualTo(3);
+        assertThat(result.rejectedRows()).isEqualTo(3);
+    }
+}
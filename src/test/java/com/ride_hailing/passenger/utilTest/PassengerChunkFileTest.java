@@ -0,0 +1,106 @@
+package com.ride_hailing.passenger.utilTest;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.util.PassengerChunkFile;
+import com.ride_hailing.passenger.util.PassengerChunkFile.ChunkHeader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PassengerChunkFileTest {
+    @TempDir
+    private Path directory;
+
+    private static List<PassengerDTO> passengers(int fromId, int toId) {
+        return IntStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> MockPassenger.getPassengerDTO(id, "name " + id, "passenger" + id + "@email.com"))
+                .toList();
+    }
+
+    private static List<PassengerDTO> readAll(Path file) throws IOException {
+        List<PassengerDTO> passengers = new ArrayList<>();
+        try (PassengerChunkFile.Reader reader = PassengerChunkFile.Reader.open(file)) {
+            ChunkHeader chunk;
+            while ((chunk = reader.next()) != null) {
+                passengers.addAll(reader.read(chunk));
+            }
+        }
+        return passengers;
+    }
+
+    @Test
+    @DisplayName("Given: two chunks written, When: read, Then: same passengers in order with the chunk id ranges")
+    void writeRead() throws IOException {
+        Path file = directory.resolve("passengers.pcf");
+        ChunkHeader first;
+        try (PassengerChunkFile.Writer writer = PassengerChunkFile.Writer.open(file)) {
+            first = writer.write(passengers(1, 1000));
+            writer.write(passengers(1001, 1500));
+        }
+
+        assertThat(first.rowCount()).isEqualTo(1000);
+        assertThat(first.lastPassengerId()).isEqualTo(1000);
+        assertThat(first.compressedLength()).isLessThan(first.rawLength());
+        assertThat(readAll(file)).isEqualTo(passengers(1, 1500));
+    }
+
+    @Test
+    @DisplayName("Given: a chunk torn by an interrupted write, When: open writer, Then: cut it off and continue after the last complete chunk")
+    void resumeAfterTornChunk() throws IOException {
+        Path file = directory.resolve("passengers.pcf");
+        try (PassengerChunkFile.Writer writer = PassengerChunkFile.Writer.open(file)) {
+            writer.write(passengers(1, 10));
+            writer.write(passengers(11, 20));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (PassengerChunkFile.Writer writer = PassengerChunkFile.Writer.open(file)) {
+            assertThat(writer.lastPassengerId()).isEqualTo(10);
+            writer.write(passengers(11, 20));
+        }
+
+        assertThat(readAll(file)).isEqualTo(passengers(1, 20));
+    }
+
+    @Test
+    @DisplayName("Given: a corrupted chunk, When: read, Then: fail with the chunk offset")
+    void readCorrupted() throws IOException {
+        Path file = directory.resolve("passengers.pcf");
+        try (PassengerChunkFile.Writer writer = PassengerChunkFile.Writer.open(file)) {
+            writer.write(passengers(1, 10));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0}), channel.size() - 3);
+        }
+
+        assertThatThrownBy(() -> readAll(file))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Corrupt chunk at offset " + PassengerChunkFile.FIRST_CHUNK_OFFSET);
+    }
+
+    @Test
+    @DisplayName("Given: a file in another format, When: open reader, Then: rejected")
+    void openNotChunkFile() throws IOException {
+        Path file = Files.writeString(directory.resolve("passengers.json"), "[]");
+
+        assertThatThrownBy(() -> PassengerChunkFile.Reader.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Not a passenger chunk file");
+    }
+}
@@ -0,0 +1,78 @@
+package com.ride_hailing.passenger.utilTest;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.util.PassengerColumnar;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PassengerColumnarTest {
+
+    private static List<PassengerDTO> roundTrip(List<PassengerDTO> passengers) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PassengerColumnar.write(passengers, outputStream);
+        return PassengerColumnar.read(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Given: unordered ids, nulls and non-ASCII text, When: write then read, Then: same passengers")
+    void roundTripPassengers() throws IOException {
+        List<PassengerDTO> passengers = List.of(
+                MockPassenger.getPassengerDTO(1_000_000, "Zoë Ångström", "zoe@example.com"),
+                MockPassenger.getPassengerDTO(3, null, "three@example.com"),
+                MockPassenger.getPassengerDTO(Integer.MAX_VALUE, "", null));
+
+        assertThat(roundTrip(passengers)).isEqualTo(passengers);
+        assertThat(roundTrip(List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given: consecutive ids, When: write, Then: each id takes one byte")
+    void consecutiveIdsAreCompact() throws IOException {
+        ByteArrayOutputStream withIds = new ByteArrayOutputStream();
+        PassengerColumnar.write(List.of(
+                MockPassenger.getPassengerDTO(100, "a", "b"),
+                MockPassenger.getPassengerDTO(101, "a", "b"),
+                MockPassenger.getPassengerDTO(102, "a", "b")), withIds);
+
+        // magic + count + 3 ids (first delta 100 needs 2 bytes) + 2 x (3 lengths + 3 bytes)
+        assertThat(withIds.size()).isEqualTo(4 + 1 + 4 + 12);
+    }
+
+    @Test
+    @DisplayName("Given: other content, When: read, Then: throw IOException")
+    void readRejectsOtherContent() {
+        assertThatThrownBy(() -> PassengerColumnar.read(new ByteArrayInputStream("[{}]".getBytes())))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Given: a row count or string length far beyond the bytes sent, When: read, Then: EOFException without allocating for it")
+    void readRejectsForgedSizes() {
+        byte[] maxVarInt = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        ByteArrayOutputStream forgedCount = new ByteArrayOutputStream();
+        forgedCount.writeBytes("PCO1".getBytes());
+        forgedCount.writeBytes(maxVarInt);
+        forgedCount.write(2);
+        ByteArrayOutputStream forgedLength = new ByteArrayOutputStream();
+        forgedLength.writeBytes("PCO1".getBytes());
+        forgedLength.write(1);
+        forgedLength.write(2);
+        forgedLength.writeBytes(maxVarInt);
+        forgedLength.write(0);
+
+        assertThatThrownBy(() -> PassengerColumnar.read(new ByteArrayInputStream(forgedCount.toByteArray())))
+                .isInstanceOf(EOFException.class);
+        assertThatThrownBy(() -> PassengerColumnar.read(new ByteArrayInputStream(forgedLength.toByteArray())))
+                .isInstanceOf(EOFException.class);
+    }
+}
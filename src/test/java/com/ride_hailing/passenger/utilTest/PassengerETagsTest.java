@@ -0,0 +1,89 @@
+package com.ride_hailing.passenger.utilTest;
+
+import com.ride_hailing.passenger.dto.PassengerDTO;
+import com.ride_hailing.passenger.exception.PreconditionFailedException;
+import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.util.PassengerETags;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PassengerETagsTest {
+    private static PassengerDTO versioned(int passengerId, long version, Instant updatedAt) {
+        return MockPassenger.getPassengerDTO(passengerId, "test", "test@email.com").toBuilder()
+                .version(version)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Given: versioned passenger, When: of, Then: return quoted id and version")
+    void ofPassenger() {
+        assertThat(PassengerETags.of(versioned(1, 3, null))).isEqualTo("\"1-3\"");
+        assertThat(PassengerETags.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Given: passenger lists, When: of, Then: tag changes with any version, order or media type change")
+    void ofList() {
+        String tag = PassengerETags.of(List.of(versioned(1, 0, null), versioned(2, 0, null)), MediaType.APPLICATION_JSON);
+
+        assertThat(PassengerETags.of(List.of(versioned(1, 0, null), versioned(2, 0, null)), MediaType.APPLICATION_JSON))
+                .isEqualTo(tag);
+        assertThat(PassengerETags.of(List.of(versioned(1, 0, null), versioned(2, 1, null)), MediaType.APPLICATION_JSON))
+                .isNotEqualTo(tag);
+        assertThat(PassengerETags.of(List.of(versioned(2, 0, null), versioned(1, 0, null)), MediaType.APPLICATION_JSON))
+                .isNotEqualTo(tag);
+        assertThat(PassengerETags.of(List.of(versioned(1, 0, null), versioned(2, 0, null)), MediaType.APPLICATION_CBOR))
+                .isNotEqualTo(tag);
+    }
+
+    @Test
+    @DisplayName("Given: Accept headers, When: negotiated, Then: return the most preferred produced type, else the first")
+    void negotiated() {
+        List<MediaType> producible = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+
+        assertThat(PassengerETags.negotiated(null, producible)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(PassengerETags.negotiated("*/*", producible)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(PassengerETags.negotiated("application/cbor", producible)).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(PassengerETags.negotiated("application/json;q=0.5, application/cbor", producible))
+                .isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(PassengerETags.negotiated("text/html, application/*;q=0.8", producible))
+                .isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(PassengerETags.negotiated("not a media type", producible)).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    @DisplayName("Given: passenger list, When: lastModified, Then: return latest updatedAt")
+    void lastModified() {
+        Instant latest = Instant.parse("2024-06-02T00:00:00Z");
+
+        assertThat(PassengerETags.lastModified(List.of(
+                versioned(1, 0, Instant.parse("2024-06-01T00:00:00Z")),
+                versioned(2, 0, latest)))).isEqualTo(latest);
+        assertThat(PassengerETags.lastModified(List.of())).isNull();
+    }
+
+    @Test
+    @DisplayName("Given: If-Match header, When: matchedVersion, Then: return version of the matching tag")
+    void matchedVersion() {
+        assertThat(PassengerETags.matchedVersion(1, "\"1-7\"")).isEqualTo(7L);
+        assertThat(PassengerETags.matchedVersion(1, "\"2-3\", \"1-4\"")).isEqualTo(4L);
+        assertThat(PassengerETags.matchedVersion(1, "*")).isNull();
+    }
+
+    @Test
+    @DisplayName("Given: weak or foreign If-Match tag, When: matchedVersion, Then: throw PreconditionFailedException")
+    void matchedVersionMismatch() {
+        assertThatThrownBy(() -> PassengerETags.matchedVersion(1, "W/\"1-7\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> PassengerETags.matchedVersion(1, "\"2-7\""))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+}
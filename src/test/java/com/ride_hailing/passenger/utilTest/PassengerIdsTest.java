@@ -0,0 +1,53 @@
+package com.ride_hailing.passenger.utilTest;
+
+import com.ride_hailing.passenger.mock.MockPassenger;
+import com.ride_hailing.passenger.util.IntHashSet;
+import com.ride_hailing.passenger.util.PassengerIds;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassengerIdsTest {
+
+    @Test
+    @DisplayName("Given: ids with duplicates and nulls, When: distinct, Then: return unique ids in first-seen order")
+    void distinct() {
+        assertThat(PassengerIds.distinct(Arrays.asList(3, 1, null, 3, 0, 1, 2, 0)))
+                .containsExactly(3, 1, 0, 2);
+    }
+
+    @Test
+    @DisplayName("Given: ids, When: chunk, Then: split into chunks of at most chunk size")
+    void chunk() {
+        assertThat(PassengerIds.chunk(new int[]{1, 2, 3, 4, 5}, 2))
+                .containsExactly(List.of(1, 2), List.of(3, 4), List.of(5));
+    }
+
+    @Test
+    @DisplayName("Given: requested and found passengers, When: missing, Then: return unfound ids once each")
+    void missing() {
+        List<Integer> missingIds = PassengerIds.missing(List.of(1, 999, 2, 999),
+                List.of(MockPassenger.getPassengerDTO(1, "test", "test@email.com"),
+                        MockPassenger.getPassengerDTO(2, "test", "test@email.com")));
+
+        assertThat(missingIds).containsExactly(999);
+    }
+
+    @Test
+    @DisplayName("Given: many ids, When: added to IntHashSet, Then: set grows and keeps membership")
+    void intHashSetGrows() {
+        IntHashSet set = new IntHashSet(1);
+        IntStream.range(-500, 500).forEach(set::add);
+
+        assertThat(set.size()).isEqualTo(1000);
+        assertThat(set.add(42)).isFalse();
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.contains(-500)).isTrue();
+        assertThat(set.contains(500)).isFalse();
+    }
+}